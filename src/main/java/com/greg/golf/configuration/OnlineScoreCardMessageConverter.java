@@ -0,0 +1,31 @@
+package com.greg.golf.configuration;
+
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.service.helpers.OnlineScoreCardCodec;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+
+// converts hole results sent to /app/hole with the compact content-type, json remains the default
+class OnlineScoreCardMessageConverter extends AbstractMessageConverter {
+
+    OnlineScoreCardMessageConverter() {
+        super(OnlineScoreCardCodec.MIME_TYPE);
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return OnlineScoreCardDto.class == clazz;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        return message.getPayload() instanceof byte[] bytes ? OnlineScoreCardCodec.decode(bytes) : null;
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return OnlineScoreCardCodec.encode((OnlineScoreCardDto) payload);
+    }
+}
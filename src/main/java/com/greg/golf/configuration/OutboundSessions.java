@@ -0,0 +1,115 @@
+package com.greg.golf.configuration;
+
+import com.greg.golf.configurationproperties.WebSocketSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// outbound pipeline of websocket sessions, each session is decorated with bounded send buffer
+// messages of all sessions are sent by one sized executor
+// the watchdog closes sessions blocked in send longer than the send time limit, so their threads are released
+@Slf4j
+@Component
+public class OutboundSessions implements WebSocketHandlerDecoratorFactory {
+
+    private static final String METRIC_NAME = "websocket";
+    private static final long WATCHDOG_INTERVAL = 1000;
+
+    private final WebSocketSettings webSocketSettings;
+    private final OutboundWebSocketSession.OverflowPolicy overflowPolicy;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService watchdog;
+    private final Metrics metrics;
+
+    private final Map<String, OutboundWebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    public OutboundSessions(WebSocketSettings webSocketSettings, MeterRegistry meterRegistry) {
+
+        this.webSocketSettings = webSocketSettings;
+        overflowPolicy = OutboundWebSocketSession.OverflowPolicy.valueOf(webSocketSettings.getOverflowPolicy());
+        executor = Executors.newFixedThreadPool(webSocketSettings.getOutboundPoolSize(),
+                new CustomizableThreadFactory("ws-outbound-"));
+        watchdog = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ws-watchdog-"));
+        var interval = Math.min(WATCHDOG_INTERVAL, webSocketSettings.getSendTimeLimit());
+        watchdog.scheduleWithFixedDelay(this::checkSendTime, interval, interval, TimeUnit.MILLISECONDS);
+
+        metrics = new Metrics(meterRegistry.counter(METRIC_NAME + ".outbound.dropped"),
+                meterRegistry.counter(METRIC_NAME + ".outbound.coalesced"),
+                meterRegistry.counter(METRIC_NAME + ".sessions.terminated"));
+        Gauge.builder(METRIC_NAME + ".sessions.active", sessions, Map::size).register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".outbound.queue.depth", this, OutboundSessions::getQueueDepth)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".outbound.queue.bytes", this, OutboundSessions::getBufferSize)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    void checkSendTime() {
+
+        var now = System.currentTimeMillis();
+        sessions.values().forEach(session -> {
+            try {
+                session.checkSendTime(now);
+            } catch (RuntimeException e) {
+                // the next run checks the session again
+                log.error("Unable to check session " + session.getId() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+
+        return new WebSocketHandlerDecorator(handler) {
+
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+
+                var outboundSession = new OutboundWebSocketSession(session, webSocketSettings.getSendTimeLimit(),
+                        webSocketSettings.getSendBufferSizeLimit(), overflowPolicy, executor, metrics);
+                sessions.put(session.getId(), outboundSession);
+                super.afterConnectionEstablished(outboundSession);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    double getQueueDepth() {
+        return sessions.values().stream().mapToInt(OutboundWebSocketSession::getQueueDepth).sum();
+    }
+
+    double getBufferSize() {
+        return sessions.values().stream().mapToInt(OutboundWebSocketSession::getBufferSize).sum();
+    }
+
+    record Metrics(Counter dropped, Counter coalesced, Counter terminated) {
+    }
+}
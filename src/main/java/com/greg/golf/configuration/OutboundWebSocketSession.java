@@ -0,0 +1,319 @@
+package com.greg.golf.configuration;
+
+import com.greg.golf.service.OnlineScoreCardPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+// session with bounded send buffer, messages are only queued by the caller and sent by the outbound executor
+// the slow client occupies at most one outbound thread, the drain yields the thread to other sessions after
+// a limited number of messages and the watchdog closes the session whose send takes longer than the time limit
+// if the buffer limit is exceeded the session is closed or the oldest score cards are dropped, depending on policy
+// other frames like receipts, errors or snapshots are never dropped, if only these remain the session is closed
+// with coalescing, queued score card of the hole is replaced by the newer one of the same hole and destination
+@Slf4j
+class OutboundWebSocketSession extends WebSocketSessionDecorator {
+
+    enum OverflowPolicy { TERMINATE, DROP_OLDEST, COALESCE }
+
+    // messages sent by one drain before the thread is returned to the executor
+    static final int DRAIN_LIMIT = 16;
+
+    private static final List<String> DROPPABLE_DESTINATIONS = List.of(OnlineScoreCardPublisher.ROUND_DESTINATION,
+            OnlineScoreCardPublisher.COURSE_DESTINATION, OnlineScoreCardPublisher.BINARY_ROUND_DESTINATION,
+            OnlineScoreCardPublisher.BINARY_COURSE_DESTINATION);
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor executor;
+    private final OutboundSessions.Metrics metrics;
+
+    // guarded by buffer
+    private final ArrayDeque<Entry> buffer = new ArrayDeque<>();
+    private final Map<String, Entry> coalesced = new HashMap<>();
+    private int bufferSize;
+    private boolean draining;
+
+    private volatile long sendStartTime;
+    private volatile boolean closed;
+
+    OutboundWebSocketSession(WebSocketSession session, int sendTimeLimit, int bufferSizeLimit,
+                             OverflowPolicy overflowPolicy, Executor executor, OutboundSessions.Metrics metrics) {
+        super(session);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        this.metrics = metrics;
+    }
+
+    int getQueueDepth() {
+        synchronized (buffer) {
+            return buffer.size();
+        }
+    }
+
+    int getBufferSize() {
+        synchronized (buffer) {
+            return bufferSize;
+        }
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+
+        if (closed) {
+            return;
+        }
+
+        checkSendTime(System.currentTimeMillis());
+        if (closed) {
+            return;
+        }
+
+        var overflow = false;
+        var startDrain = false;
+
+        synchronized (buffer) {
+            var key = overflowPolicy == OverflowPolicy.COALESCE ? coalesceKey(message) : null;
+            var newest = key == null ? null : coalesced.get(key);
+            if (newest != null) {
+                bufferSize += message.getPayloadLength() - newest.message.getPayloadLength();
+                newest.message = message;
+                metrics.coalesced().increment();
+            } else {
+                newest = new Entry(key, message, overflowPolicy != OverflowPolicy.TERMINATE && isDroppable(message));
+                buffer.add(newest);
+                if (key != null) {
+                    coalesced.put(key, newest);
+                }
+                bufferSize += message.getPayloadLength();
+            }
+
+            // the newest message is never dropped
+            while (bufferSize > bufferSizeLimit && buffer.size() > 1 && !overflow) {
+                var dropped = overflowPolicy == OverflowPolicy.TERMINATE ? null : oldestDroppable(newest);
+                if (dropped == null) {
+                    overflow = true;
+                } else {
+                    buffer.remove(dropped);
+                    remove(dropped);
+                    metrics.dropped().increment();
+                }
+            }
+
+            if (!draining && !overflow) {
+                draining = true;
+                startDrain = true;
+            }
+        }
+
+        if (overflow) {
+            log.warn("Send buffer size limit exceeded for session " + getId());
+            terminate();
+        } else if (startDrain) {
+            submitDrain();
+        }
+    }
+
+    // called periodically by the watchdog, the send blocked on the client that does not read is not left
+    // until the container times it out
+    void checkSendTime(long now) {
+
+        var started = sendStartTime;
+        if (started > 0 && now - started > sendTimeLimit) {
+            log.warn("Send time limit exceeded for session " + getId());
+            terminate();
+        }
+    }
+
+    private void submitDrain() {
+
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // executor is shut down only when application stops
+            synchronized (buffer) {
+                draining = false;
+            }
+        }
+    }
+
+    // sends queued messages one by one, only one drain runs at a time for the session
+    // after the limit the rest is sent by the next drain queued behind drains of other sessions
+    private void drain() {
+
+        var sent = 0;
+        while (!closed) {
+            Entry entry;
+            synchronized (buffer) {
+                entry = buffer.poll();
+                if (entry == null) {
+                    draining = false;
+                    return;
+                }
+                remove(entry);
+            }
+
+            try {
+                sendStartTime = System.currentTimeMillis();
+                getDelegate().sendMessage(entry.message);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Unable to send message to session " + getId() + ": " + e.getMessage());
+                terminate();
+            } finally {
+                sendStartTime = 0;
+            }
+
+            if (++sent == DRAIN_LIMIT) {
+                submitDrain();
+                return;
+            }
+        }
+    }
+
+    // guarded by buffer
+    private Entry oldestDroppable(Entry newest) {
+
+        for (var entry : buffer) {
+            if (entry.droppable && entry != newest) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    // guarded by buffer
+    private void remove(Entry entry) {
+
+        bufferSize -= entry.message.getPayloadLength();
+        if (entry.key != null) {
+            coalesced.remove(entry.key, entry);
+        }
+    }
+
+    private void terminate() {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+        metrics.terminated().increment();
+
+        synchronized (buffer) {
+            buffer.clear();
+            coalesced.clear();
+            bufferSize = 0;
+        }
+
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Unable to close session " + getId() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closed = true;
+        super.close(status);
+    }
+
+    // destination, online round and hole of the score card sent in STOMP frame, null for other messages and snapshots
+    static String coalesceKey(WebSocketMessage<?> message) {
+
+        if (!(message instanceof TextMessage textMessage)) {
+            return null;
+        }
+
+        var frame = textMessage.getPayload();
+        var body = frame.indexOf("\n\n");
+        if (!frame.startsWith("MESSAGE\n") || body < 0) {
+            return null;
+        }
+
+        // snapshot is the list of score cards, it must never be replaced by the single one
+        if (frame.substring(0, body).contains("\nsnapshot:") || body + 2 >= frame.length()
+                || frame.charAt(body + 2) != '{') {
+            return null;
+        }
+
+        var destination = value(frame, "\ndestination:", 0, body, '\n');
+        var onlineRound = value(frame, "\"orId\":", body, frame.length(), ',');
+        var hole = value(frame, "\"hole\":", body, frame.length(), ',');
+
+        return destination == null || onlineRound == null || hole == null
+                ? null : destination + '|' + onlineRound + '|' + hole;
+    }
+
+    // score card delivered to subscribers of the online round or course, the newer one follows anyway
+    static boolean isDroppable(WebSocketMessage<?> message) {
+
+        String headers;
+        if (message instanceof TextMessage textMessage) {
+            var frame = textMessage.getPayload();
+            var body = frame.indexOf("\n\n");
+            headers = body < 0 ? frame : frame.substring(0, body + 1);
+        } else if (message instanceof BinaryMessage binaryMessage) {
+            var payload = binaryMessage.getPayload().duplicate();
+            var frame = new StringBuilder();
+            while (payload.hasRemaining()) {
+                var c = (char) (payload.get() & 0xFF);
+                if (c == '\n' && frame.length() > 0 && frame.charAt(frame.length() - 1) == '\n') {
+                    break;
+                }
+                frame.append(c);
+            }
+            headers = frame.toString();
+        } else {
+            return false;
+        }
+
+        if (!headers.startsWith("MESSAGE\n") || headers.contains("\nsnapshot:")) {
+            return false;
+        }
+        var destination = value(headers, "\ndestination:", 0, headers.length(), '\n');
+        return destination != null && DROPPABLE_DESTINATIONS.stream().anyMatch(destination::startsWith);
+    }
+
+    private static String value(String frame, String name, int from, int to, char separator) {
+
+        var start = frame.indexOf(name, from);
+        if (start < 0 || start >= to) {
+            return null;
+        }
+        start += name.length();
+
+        var end = start;
+        while (end < to && frame.charAt(end) != separator && frame.charAt(end) != '}') {
+            end++;
+        }
+        return frame.substring(start, end);
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final boolean droppable;
+        private WebSocketMessage<?> message;
+
+        private Entry(String key, WebSocketMessage<?> message, boolean droppable) {
+            this.key = key;
+            this.message = message;
+            this.droppable = droppable;
+        }
+    }
+}
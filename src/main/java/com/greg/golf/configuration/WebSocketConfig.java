@@ -1,24 +1,36 @@
 package com.greg.golf.configuration;
 
+import com.greg.golf.configurationproperties.WebSocketSettings;
+import com.greg.golf.service.OnlineScoreCardSnapshots;
+import com.greg.golf.service.helpers.OnlineScoreCardCodec;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -43,6 +55,19 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
 	private MessageChannel outChannel;
 
+	private final WebSocketSettings webSocketSettings;
+	private final OutboundSessions outboundSessions;
+	private final OnlineScoreCardSnapshots onlineScoreCardSnapshots;
+	private final MappingJackson2MessageConverter snapshotConverter = new MappingJackson2MessageConverter();
+
+	// snapshots are lazy as their services depend on the messaging template created by this configuration
+	public WebSocketConfig(WebSocketSettings webSocketSettings, OutboundSessions outboundSessions,
+						   @Lazy OnlineScoreCardSnapshots onlineScoreCardSnapshots) {
+		this.webSocketSettings = webSocketSettings;
+		this.outboundSessions = outboundSessions;
+		this.onlineScoreCardSnapshots = onlineScoreCardSnapshots;
+	}
+
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry config) {
 		config	.enableSimpleBroker("/topic")
@@ -53,7 +78,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
 	@Bean
 	public TaskScheduler heartBeatScheduler() {
-		return new ThreadPoolTaskScheduler();
+		var scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(webSocketSettings.getHeartbeatPoolSize());
+		scheduler.setThreadNamePrefix("ws-heartbeat-");
+		return scheduler;
+	}
+
+	// sessions are decorated with bounded outbound buffers, so limits of the default decorator are never reached
+	@Override
+	public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+		registration.setSendTimeLimit(webSocketSettings.getSendTimeLimit())
+				.setSendBufferSizeLimit(webSocketSettings.getSendBufferSizeLimit())
+				.addDecoratorFactory(outboundSessions);
 	}
 
 	@Override
@@ -68,6 +104,13 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 		log.debug("STOMP endpoint registered");
 	}
 
+	// compact score cards are converted only if the message has their content-type, defaults are kept
+	@Override
+	public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+		messageConverters.add(new OnlineScoreCardMessageConverter());
+		return true;
+	}
+
 	@Override
 	public void configureClientInboundChannel(ChannelRegistration registration) {
 		registration.interceptors( new InboundMessageInterceptor() );
@@ -88,7 +131,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 		}
 	}
 
-	class InboundMessageInterceptor implements ChannelInterceptor {
+	class InboundMessageInterceptor implements ExecutorChannelInterceptor {
 
 		@Override
 		public Message<?> preSend(@NonNull Message message, @NonNull MessageChannel channel) {
@@ -114,6 +157,53 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 			return message;
 		}
 
+		// the current state is sent to the new subscriber once the broker has registered the subscription
+		// so deltas published later are not missed, deltas published in between only repeat the snapshot
+		@Override
+		public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel,
+										@NonNull MessageHandler handler, Exception ex) {
+			if (ex != null || !(handler instanceof SimpleBrokerMessageHandler) ||
+					!SimpMessageType.SUBSCRIBE.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))) {
+				return;
+			}
+			var headers = SimpMessageHeaderAccessor.wrap(message);
+			if (headers.getDestination() == null || headers.getSessionId() == null) {
+				return;
+			}
+			try {
+				var snapshot = onlineScoreCardSnapshots.getSnapshot(headers.getDestination());
+				if (snapshot != null) {
+					sendSnapshot(snapshot, headers);
+				}
+			} catch (RuntimeException e) {
+				// the subscriber still receives deltas and can read the state by REST
+				log.error("Unable to send snapshot of " + headers.getDestination() + ": " + e.getMessage());
+			}
+		}
+
+		private void sendSnapshot(Object snapshot, SimpMessageHeaderAccessor subscribeHeaders) {
+			if( outChannel != null ) {
+				var snapshotHeaders = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+				snapshotHeaders.setSessionId(subscribeHeaders.getSessionId());
+				snapshotHeaders.setSubscriptionId(subscribeHeaders.getSubscriptionId());
+				snapshotHeaders.setDestination(subscribeHeaders.getDestination());
+				snapshotHeaders.setNativeHeader("snapshot", "true");
+				snapshotHeaders.setLeaveMutable(true);
+				Message<?> snapshotMessage;
+				if (snapshot instanceof byte[] bytes) {
+					// already encoded in the compact layout of binary destinations
+					snapshotHeaders.setContentType(OnlineScoreCardCodec.MIME_TYPE);
+					snapshotMessage = MessageBuilder.createMessage(bytes, snapshotHeaders.getMessageHeaders());
+				} else {
+					snapshotMessage = snapshotConverter.toMessage(snapshot, snapshotHeaders.getMessageHeaders());
+				}
+				if (snapshotMessage != null) {
+					outChannel.send(snapshotMessage);
+				}
+			} else
+				log.error("snapshot NOT sent" );
+		}
+
 		private void sendReceipt( String rid, String simpSessionId ) {
 			if( outChannel != null ) {
 				HashMap<String,Object> rcptHeaders = new HashMap<>();
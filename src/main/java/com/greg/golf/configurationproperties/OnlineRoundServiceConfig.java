@@ -0,0 +1,17 @@
+package com.greg.golf.configurationproperties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("online")
+public class OnlineRoundServiceConfig {
+	private Integer scoreCardBufferSize;
+	private Integer scoreCardFlushInterval;
+	private Integer roundCacheSize;
+	private Integer courseCacheSize;
+	private Integer purgeChunkSize;
+	private Integer purgeStaleHours;
+	private String journalDirectory;
+	private Integer journalSegmentSize;
+}
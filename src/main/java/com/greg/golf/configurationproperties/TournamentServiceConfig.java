@@ -0,0 +1,14 @@
+package com.greg.golf.configurationproperties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("tournament")
+public class TournamentServiceConfig {
+	private Integer leaderboardCacheSize;
+	private Integer leaderboardCacheExpireMinutes;
+	private Integer projectionParallelThreshold;
+	private Integer exportFetchSize;
+	private Integer rebuildProgressExpireMinutes;
+}
@@ -0,0 +1,14 @@
+package com.greg.golf.configurationproperties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+
+@Data
+@ConfigurationProperties("websocket")
+public class WebSocketSettings {
+	private Integer sendTimeLimit;
+	private Integer sendBufferSizeLimit;
+	private String overflowPolicy;
+	private Integer outboundPoolSize;
+	private Integer heartbeatPoolSize;
+}
@@ -224,4 +224,12 @@ public class ApiExceptionHandler {
 		var response = new ApiErrorResponse("25", "Tee must be unique for a course.");
 		return new ResponseEntity<>(response, HttpStatus.METHOD_NOT_ALLOWED);
 	}
+
+	@ResponseStatus(HttpStatus.METHOD_NOT_ALLOWED)
+	@ExceptionHandler( TournamentRebuildInProgressException.class)
+	public ResponseEntity<ApiErrorResponse> handleApiException(TournamentRebuildInProgressException ex) {
+
+		var response = new ApiErrorResponse("26", "Tournament results are already being rebuilt.");
+		return new ResponseEntity<>(response, HttpStatus.METHOD_NOT_ALLOWED);
+	}
 }
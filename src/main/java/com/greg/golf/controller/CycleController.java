@@ -2,9 +2,11 @@ package com.greg.golf.controller;
 
 import com.greg.golf.controller.dto.CycleDto;
 import com.greg.golf.controller.dto.CycleResultDto;
+import com.greg.golf.controller.dto.CycleStandingDto;
 import com.greg.golf.controller.dto.CycleTournamentDto;
 import com.greg.golf.entity.Cycle;
 import com.greg.golf.entity.CycleTournament;
+import com.greg.golf.service.CycleImportService;
 import com.greg.golf.service.CycleService;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +17,8 @@ import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
@@ -23,10 +27,12 @@ import java.util.List;
 public class CycleController extends BaseController {
 
 	private final CycleService cycleService;
+	private final CycleImportService cycleImportService;
 
-	public CycleController(ModelMapper modelMapper, CycleService cycleService) {
+	public CycleController(ModelMapper modelMapper, CycleService cycleService, CycleImportService cycleImportService) {
 		super(modelMapper);
 		this.cycleService = cycleService;
+		this.cycleImportService = cycleImportService;
 	}
 
 	@SuppressWarnings("SameReturnValue")
@@ -57,6 +63,26 @@ public class CycleController extends BaseController {
 		return HttpStatus.OK;
 	}
 
+	@SuppressWarnings("SameReturnValue")
+	@Tag(name = "Cycle API")
+	@Operation(summary = "Imports cycle tournament from Eagle results streamed in the request body")
+	@PostMapping(value = "/rest/CycleTournamentImport/{cycleId}")
+	public HttpStatus importCycleTournament(
+			@Parameter(description = "Cycle id", example = "1", required = true) @PathVariable("cycleId") Long cycleId,
+			@Parameter(description = "Cycle tournament name", example = "Tournament 1", required = true) @RequestParam("name") String name,
+			@Parameter(description = "Number of rounds", example = "1", required = true) @RequestParam("rounds") Integer rounds,
+			@Parameter(description = "Indicates if only best tournament round should be taken into account", example = "false")
+				@RequestParam(value = "bestOf", defaultValue = "false") Boolean bestOf,
+			@Parameter(description = "Eagle results, array or object with items array", required = true) InputStream inputStream)
+			throws IOException {
+
+		log.info("trying to import cycle tournament: " + name);
+
+		cycleImportService.importCycleTournament(cycleId, name, rounds, bestOf, inputStream);
+
+		return HttpStatus.OK;
+	}
+
 	@Tag(name = "Cycle API")
 	@Operation(summary = "Return all cycles")
 	@GetMapping(value = "/rest/Cycle")
@@ -84,6 +110,17 @@ public class CycleController extends BaseController {
 		return mapList(cycleService.findCycleResults(cycleId), CycleResultDto.class);
 	}
 
+	@Tag(name = "Cycle API")
+	@Operation(summary = "Return cycle standings after the given cycle tournament")
+	@GetMapping(value = "/rest/CycleResult/{cycleId}/{cycleTournamentId}")
+	public List<CycleStandingDto> getCycleStandings(
+			@Parameter(description = "Cycle id", example = "1", required = true) @PathVariable("cycleId") Long cycleId,
+			@Parameter(description = "Cycle tournament id", example = "1", required = true)
+			@PathVariable("cycleTournamentId") Long cycleTournamentId) {
+		log.info("Requested cycle standings for cycle: " + cycleId + " after tournament: " + cycleTournamentId);
+		return mapList(cycleService.findCycleStandings(cycleId, cycleTournamentId), CycleStandingDto.class);
+	}
+
 	@SuppressWarnings({"UnusedReturnValue", "SameReturnValue"})
 	@Tag(name = "Cycle API")
 	@Operation(summary = "Close cycle. Further updates will not be possible.")
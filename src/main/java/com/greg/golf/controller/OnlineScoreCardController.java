@@ -1,13 +1,13 @@
 package com.greg.golf.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,12 +15,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.greg.golf.controller.dto.OnlineLeaderboardRowDto;
 import com.greg.golf.controller.dto.OnlineRoundDto;
 import com.greg.golf.controller.dto.OnlineScoreCardDto;
 import com.greg.golf.controller.dto.PlayerDto;
 import com.greg.golf.entity.OnlineRound;
 import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.service.OnlineLeaderboardService;
 import com.greg.golf.service.OnlineRoundService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
 import com.greg.golf.service.PlayerService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,28 +36,37 @@ public class OnlineScoreCardController extends BaseController {
 
 	private final OnlineRoundService onlineRoundService;
 	private final PlayerService playerService;
-	private final SimpMessagingTemplate template;
+	private final OnlineScoreCardPublisher onlineScoreCardPublisher;
+	private final OnlineLeaderboardService onlineLeaderboardService;
 
 
 	public OnlineScoreCardController(ModelMapper modelMapper, OnlineRoundService onlineRoundService,
-			PlayerService playerService, SimpMessagingTemplate template) {
+			PlayerService playerService, OnlineScoreCardPublisher onlineScoreCardPublisher,
+			OnlineLeaderboardService onlineLeaderboardService) {
 		super(modelMapper);
 		this.onlineRoundService = onlineRoundService;
 		this.playerService = playerService;
-		this.template = template;
+		this.onlineScoreCardPublisher = onlineScoreCardPublisher;
+		this.onlineLeaderboardService = onlineLeaderboardService;
 	}
 
+	// the hole result is sent only to subscribers of the online round and of its course
+	// results without player or time, or of online rounds that do not exist, could never be saved so are rejected
 	@MessageMapping("/hole")
-	@SendTo("/topic")
-	public OnlineScoreCardDto send(OnlineScoreCardDto onlineScoreCardDto) {
+	public void send(@Valid OnlineScoreCardDto onlineScoreCardDto) {
 
 		log.info("Received s -  " + onlineScoreCardDto);
 
-		var onlineScoreCard = modelMapper.map(onlineScoreCardDto, OnlineScoreCard.class);
+		if (onlineScoreCardDto.getPlayer() == null || onlineScoreCardDto.getPlayer().getId() == null
+				|| onlineScoreCardDto.getTime() == null
+				|| !onlineScoreCardPublisher.roundExists(onlineScoreCardDto.getOrId())) {
+			log.warn("Invalid hole result rejected: " + onlineScoreCardDto);
+			return;
+		}
 
-		onlineRoundService.saveOnlineScoreCard(modelMapper.map(onlineScoreCardDto, OnlineScoreCard.class));
+		onlineRoundService.bufferOnlineScoreCard(modelMapper.map(onlineScoreCardDto, OnlineScoreCard.class));
 
-		return modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class);
+		onlineScoreCardPublisher.publish(onlineScoreCardDto);
 	}
 
 	@Tag(name = "Online scorecard API")
@@ -69,12 +81,34 @@ public class OnlineScoreCardController extends BaseController {
 
 		oScoreCardLst = onlineRoundService.syncOnlineScoreCards(oScoreCardLst);
 
-		oScoreCardLst.stream().filter(OnlineScoreCard::isSyncRequired).forEach(onlineScoreCard ->
-				template.convertAndSend("/topic" ,modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class)));
+		publishSynchronized(oScoreCardLst);
 
 		return HttpStatus.OK;
 	}
 
+	@Tag(name = "Online scorecard API")
+	@Operation(summary = "Save hole results changed by the client and return acknowledged change sequence by online round id")
+	@PostMapping(value = "/rest/OnlineScoreCardSync")
+	public Map<Long, Long> syncOnlineScoreCardChanges(
+			@Parameter(description = "List of ScoreCard objects changed after the last acknowledged sequence", required = true) @RequestBody List<OnlineScoreCardDto> onlineScoreCards) {
+
+		log.info("Attempt to save hole result changes for online round");
+
+		List<OnlineScoreCard> oScoreCardLst = mapList(onlineScoreCards, OnlineScoreCard.class);
+
+		var sequences = onlineRoundService.syncOnlineScoreCardChanges(oScoreCardLst);
+
+		publishSynchronized(oScoreCardLst);
+
+		return sequences;
+	}
+
+	private void publishSynchronized(List<OnlineScoreCard> onlineScoreCards) {
+
+		onlineScoreCards.stream().filter(OnlineScoreCard::isSyncRequired).forEach(onlineScoreCard ->
+				onlineScoreCardPublisher.publish(modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class)));
+	}
+
 	@Tag(name = "Online scorecard API")
 	@Operation(summary = "Adds online rounds")
 	@PostMapping(value = "/rest/OnlineRounds")
@@ -105,6 +139,16 @@ public class OnlineScoreCardController extends BaseController {
 		return mapList(onlineRoundService.getOnlineScoreCards(onlineRoundId), OnlineScoreCardDto.class);
 	}
 
+	@Tag(name = "Online scorecard API")
+	@Operation(summary = "Return score cards of on-line round changed after the given change sequence, followed by pending ones without sequence")
+	@GetMapping(value = "/rest/OnlineScoreCard/{onlineRoundId}/{sequence}")
+	public List<OnlineScoreCardDto> getOnlineScoreCardChanges(
+			@Parameter(description = "Online round id", example = "1", required = true) @PathVariable("onlineRoundId") Long onlineRoundId,
+			@Parameter(description = "Last change sequence known by the client", example = "0", required = true) @PathVariable("sequence") Long sequence) {
+		log.info("Requested online round score cards changed after: " + sequence);
+		return mapList(onlineRoundService.getOnlineScoreCardChanges(onlineRoundId, sequence), OnlineScoreCardDto.class);
+	}
+
 	@Tag(name = "Online scorecard API")
 	@Operation(summary = "Return online rounds for course")
 	@GetMapping(value = "/rest/OnlineRoundCourse/{courseId}")
@@ -114,6 +158,15 @@ public class OnlineScoreCardController extends BaseController {
 		return mapList(onlineRoundService.getOnlineRoundsForCourse(courseId), OnlineRoundDto.class);
 	}
 
+	@Tag(name = "Online scorecard API")
+	@Operation(summary = "Return live leaderboard of online rounds for course, changes are sent to /topic/leaderboard/{courseId}")
+	@GetMapping(value = "/rest/OnlineLeaderboard/{courseId}")
+	public List<OnlineLeaderboardRowDto> getOnlineLeaderboard(
+			@Parameter(description = "Course id", example = "1", required = true) @PathVariable("courseId") Long courseId) {
+		log.info("Requested online leaderboard for course: " + courseId);
+		return onlineLeaderboardService.getLeaderboard(courseId);
+	}
+
 	@Tag(name = "Online scorecard API")
 	@Operation(summary = "Return player for nick")
 	@GetMapping(value = "/rest/Player/{nick}")
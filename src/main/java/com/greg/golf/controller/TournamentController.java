@@ -8,11 +8,19 @@ import com.greg.golf.entity.TournamentPlayer;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.greg.golf.entity.Tournament;
 import com.greg.golf.entity.TournamentRound;
+import com.greg.golf.service.TournamentExportService;
+import com.greg.golf.service.TournamentLeaderboardCache;
+import com.greg.golf.service.TournamentProjectionService;
+import com.greg.golf.service.TournamentRebuildService;
 import com.greg.golf.service.TournamentService;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
@@ -26,10 +34,22 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class TournamentController extends BaseController {
 
 	private final TournamentService tournamentService;
-
-	public TournamentController(ModelMapper modelMapper, TournamentService tournamentService) {
+	private final TournamentLeaderboardCache tournamentLeaderboardCache;
+	private final TournamentRebuildService tournamentRebuildService;
+	private final TournamentProjectionService tournamentProjectionService;
+	private final TournamentExportService tournamentExportService;
+
+	public TournamentController(ModelMapper modelMapper, TournamentService tournamentService,
+								TournamentLeaderboardCache tournamentLeaderboardCache,
+								TournamentRebuildService tournamentRebuildService,
+								TournamentProjectionService tournamentProjectionService,
+								TournamentExportService tournamentExportService) {
 		super(modelMapper);
 		this.tournamentService = tournamentService;
+		this.tournamentLeaderboardCache = tournamentLeaderboardCache;
+		this.tournamentRebuildService = tournamentRebuildService;
+		this.tournamentProjectionService = tournamentProjectionService;
+		this.tournamentExportService = tournamentExportService;
 	}
 
 	@Tag(name = "Tournament API")
@@ -48,8 +68,41 @@ public class TournamentController extends BaseController {
 			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
 		log.info("Requested all tournament results sorted by played round desc and score net ascending");
 
-		return mapList(tournamentService.findAllTournamentsResults(tournamentId), TournamentResultDto.class);
+		return tournamentLeaderboardCache.get(tournamentId,
+				() -> mapList(tournamentService.findAllTournamentsResults(tournamentId), TournamentResultDto.class));
+
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Return tournament results projected for hypothetical rounds, nothing is saved")
+	@PostMapping(value = "/rest/TournamentProjection/{tournamentId}")
+	public List<TournamentResultDto> getTournamentProjection(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "Hypothetical rounds of tournament players", required = true)
+				@Valid @RequestBody List<TournamentProjectionRoundDto> projectionRoundDtoLst) {
+		log.info("Requested tournament projection for " + projectionRoundDtoLst.size() + " rounds");
+
+		return mapList(tournamentProjectionService.project(tournamentId, projectionRoundDtoLst), TournamentResultDto.class);
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Export tournament results with all tournament rounds as csv or ndjson")
+	@GetMapping(value = "/rest/TournamentExport/{tournamentId}")
+	public ResponseEntity<StreamingResponseBody> exportTournament(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "Export format: csv or ndjson", example = "csv")
+				@RequestParam(value = "format", defaultValue = TournamentExportService.FORMAT_CSV) String format) {
+		log.info("Requested export of tournament " + tournamentId + " as " + format);
+
+		tournamentExportService.verify(tournamentId, format);
 
+		var mediaType = TournamentExportService.FORMAT_CSV.equals(format)
+				? new MediaType("text", "csv") : new MediaType("application", "x-ndjson");
+
+		return ResponseEntity.ok()
+				.contentType(mediaType)
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tournament-" + tournamentId + "." + format)
+				.body(outputStream -> tournamentExportService.export(tournamentId, format, outputStream));
 	}
 
 	@Tag(name = "Tournament API")
@@ -76,6 +129,21 @@ public class TournamentController extends BaseController {
 		return HttpStatus.OK;
 	}
 
+	@SuppressWarnings("SameReturnValue")
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Adds multiple rounds to tournament at once")
+	@PostMapping(value = "/rest/TournamentRounds/{tournamentId}")
+	public HttpStatus addRoundsToTournament(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId,
+			@Parameter(description = "List of round objects", required = true) @RequestBody List<LimitedRoundDto> limitedRoundDtoLst) {
+
+		log.info("trying to add " + limitedRoundDtoLst.size() + " rounds to tournament: " + tournamentId);
+		tournamentService.addRounds(tournamentId, limitedRoundDtoLst.stream().map(LimitedRoundDto::getId).toList());
+		log.info("Rounds added");
+
+		return HttpStatus.OK;
+	}
+
 	@SuppressWarnings("SameReturnValue")
 	@Tag(name = "Tournament API")
 	@Operation(summary = "Add tournament")
@@ -139,6 +207,28 @@ public class TournamentController extends BaseController {
 		return HttpStatus.OK;
 	}
 
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Rebuild all tournament results from rounds added to the tournament. Only for administrator.")
+	@PostMapping(value = "/rest/TournamentRebuild/{tournamentId}")
+	public TournamentRebuildDto rebuildTournament(
+			@Parameter(description = "Tournament id to be rebuilt", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
+
+		log.info("trying to rebuild tournament: " + tournamentId);
+
+		return modelMapper.map(tournamentRebuildService.rebuild(tournamentId), TournamentRebuildDto.class);
+	}
+
+	@Tag(name = "Tournament API")
+	@Operation(summary = "Return progress of the tournament results rebuild")
+	@GetMapping(value = "/rest/TournamentRebuild/{tournamentId}")
+	public TournamentRebuildDto getRebuildProgress(
+			@Parameter(description = "Tournament id", example = "1", required = true) @PathVariable("tournamentId") Long tournamentId) {
+
+		log.info("Requested progress of tournament rebuild: " + tournamentId);
+
+		return modelMapper.map(tournamentRebuildService.getProgress(tournamentId), TournamentRebuildDto.class);
+	}
+
 	@Tag(name = "Tournament API")
 	@Operation(summary = "Delete tournament")
 	@DeleteMapping(value = "/rest/Tournament/{tournamentId}")
@@ -0,0 +1,24 @@
+package com.greg.golf.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+@Getter
+@Setter
+public class CycleStandingDto {
+
+	@JsonProperty( value = "name", access = JsonProperty.Access.READ_ONLY)
+	@Schema(description = "Player name", accessMode = READ_ONLY)
+	private String playerName;
+
+	@Schema(description = "Total score", example = "1", accessMode = READ_ONLY)
+	private Integer total;
+
+	@JsonProperty( value = "cycleResult", access = JsonProperty.Access.READ_ONLY)
+	@Schema(description = "Player cycle result", example = "1", accessMode = READ_ONLY)
+	private Integer cycleScore;
+}
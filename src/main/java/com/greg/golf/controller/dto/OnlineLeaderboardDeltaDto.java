@@ -0,0 +1,23 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class OnlineLeaderboardDeltaDto {
+
+	@Schema(description = "Course identifier", example = "1", accessMode = READ_ONLY)
+	private Long courseId;
+
+	@Schema(description = "Delta sequence number, gap means that the leaderboard needs to be reloaded", example = "5", accessMode = READ_ONLY)
+	private Long sequence;
+
+	@Schema(description = "Rows which are new or whose rank or score has been changed", accessMode = READ_ONLY)
+	private List<OnlineLeaderboardRowDto> changed;
+}
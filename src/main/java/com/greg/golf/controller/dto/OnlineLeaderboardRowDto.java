@@ -0,0 +1,38 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnlineLeaderboardRowDto {
+
+	@Schema(description = "Online round identifier", example = "1", accessMode = READ_ONLY)
+	private Long orId;
+
+	@Schema(description = "Player nick", example = "golfer", accessMode = READ_ONLY)
+	private String nick;
+
+	@Schema(description = "Rank starting from 1", example = "1", accessMode = READ_ONLY)
+	private Integer rank;
+
+	@Schema(description = "Number of played holes", example = "9", accessMode = READ_ONLY)
+	private Integer holes;
+
+	@Schema(description = "Gross strokes on played holes", example = "45", accessMode = READ_ONLY)
+	private Integer gross;
+
+	@Schema(description = "Gross strokes to par of played holes", example = "9", accessMode = READ_ONLY)
+	private Integer toPar;
+
+	@Schema(description = "Net strokes to par of played holes", example = "-1", accessMode = READ_ONLY)
+	private Integer netToPar;
+
+	@Schema(description = "STB net points on played holes", example = "19", accessMode = READ_ONLY)
+	private Integer stb;
+}
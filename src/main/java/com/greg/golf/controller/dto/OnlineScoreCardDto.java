@@ -48,4 +48,7 @@ public class OnlineScoreCardDto {
 	@Pattern(regexp = "^(0\\d|1\\d|2[0-3]):[0-5]\\d$")
 	private String time;
 
+	@Schema(description = "Change sequence of the score card, increasing with every change of the online round", example = "125", accessMode = READ_ONLY)
+	private Long sequence;
+
 }
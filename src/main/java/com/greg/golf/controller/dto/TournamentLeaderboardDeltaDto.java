@@ -0,0 +1,30 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TournamentLeaderboardDeltaDto {
+
+	@Schema(description = "Tournament identifier", example = "1", accessMode = READ_ONLY)
+	private Long tournamentId;
+
+	@Schema(description = "Delta sequence number, 1 means the whole leaderboard, gap means that the leaderboard needs to be reloaded", example = "5", accessMode = READ_ONLY)
+	private Long sequence;
+
+	@Schema(description = "Results which are new or have been changed", accessMode = READ_ONLY)
+	private List<TournamentResultDto> changed;
+
+	@Schema(description = "New ranks (starting from 1) of results whose position has been changed, by result id", accessMode = READ_ONLY)
+	private Map<Long, Integer> ranks;
+
+	@Schema(description = "Identifiers of removed results", accessMode = READ_ONLY)
+	private List<Long> removed;
+}
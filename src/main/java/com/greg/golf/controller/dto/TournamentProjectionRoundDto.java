@@ -0,0 +1,28 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.WRITE_ONLY;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TournamentProjectionRoundDto {
+
+	@NotNull
+	@Schema(description = "Tournament player identifier", example = "25", accessMode = WRITE_ONLY)
+	private Long playerId;
+
+	@NotNull
+	@Schema(description = "Tee identifier, course is taken from the tee", example = "1", accessMode = WRITE_ONLY)
+	private Long teeId;
+
+	@NotNull
+	@Size(min = 18, max = 18, message = "Strokes must be given for 18 holes")
+	@Schema(description = "Hypothetical strokes for holes 1 to 18", accessMode = WRITE_ONLY)
+	private List<Integer> strokes;
+}
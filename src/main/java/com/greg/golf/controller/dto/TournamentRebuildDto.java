@@ -0,0 +1,20 @@
+package com.greg.golf.controller.dto;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TournamentRebuildDto {
+
+	@Schema(description = "Rebuild status: LOADING, SCORING, SAVING, DONE or FAILED", example = "DONE", accessMode = READ_ONLY)
+	private String status;
+
+	@Schema(description = "Number of player rounds to be scored", accessMode = READ_ONLY, minimum = "0")
+	private Integer totalRounds;
+
+	@Schema(description = "Number of already scored player rounds", accessMode = READ_ONLY, minimum = "0")
+	private Integer processedRounds;
+}
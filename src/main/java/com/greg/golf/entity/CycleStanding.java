@@ -0,0 +1,33 @@
+package com.greg.golf.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+// total and cycle score of the player after the cycle tournament
+// recorded only for players whose standing changed in that tournament
+@Data
+@Entity
+@Table(name = "cycle_standing")
+public class CycleStanding {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    private CycleTournament cycleTournament;
+
+    @Column(name = "player_name")
+    private String playerName;
+
+    @Column(name = "total")
+    private Integer total;
+
+    @Column(name = "cycle_result")
+    private Integer cycleScore;
+}
@@ -39,4 +39,10 @@ public class CycleTournament {
     @NotNull
     @Column(name = "best_off")
     private Boolean bestOf;
+
+    // true if standings of the tournament are recorded in cycle_standing
+    @EqualsAndHashCode.Exclude
+    @NotNull
+    @Column(name = "standings")
+    private Boolean standings = false;
 }
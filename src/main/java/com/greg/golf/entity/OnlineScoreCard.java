@@ -61,6 +61,11 @@ public class OnlineScoreCard {
 	@Column(name = "time")
 	private String time;
 
+	// set by database trigger on every insert and update
+	@EqualsAndHashCode.Exclude
+	@Column(name = "change_sequence", insertable = false, updatable = false)
+	private Long sequence;
+
 	@Transient
 	private long orId;
 
@@ -2,12 +2,14 @@ package com.greg.golf.entity;
 
 import java.util.List;
 
+import com.vladmihalcea.hibernate.type.array.IntArrayType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.Type;
 
 @Data
 @Entity
@@ -56,6 +58,32 @@ public class TournamentResult {
 	@Column(name = "stb_gross")
 	private Integer stbGross;
 
+	// best rounds heaps maintained for tournaments with limited number of best rounds
+	// null if tournament takes all rounds or result has been created before they were introduced
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	@Type(IntArrayType.class)
+	@Column(name = "best_stb_net", columnDefinition = "int[]")
+	private int[] bestStbNet;
+
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	@Type(IntArrayType.class)
+	@Column(name = "best_stb_gross", columnDefinition = "int[]")
+	private int[] bestStbGross;
+
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	@Type(IntArrayType.class)
+	@Column(name = "best_strokes_netto", columnDefinition = "int[]")
+	private int[] bestStrokesNetto;
+
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	@Type(IntArrayType.class)
+	@Column(name = "best_strokes_brutto", columnDefinition = "int[]")
+	private int[] bestStrokesBrutto;
+
 	@EqualsAndHashCode.Exclude
 	@ToString.Exclude
 	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "tournamentResult")
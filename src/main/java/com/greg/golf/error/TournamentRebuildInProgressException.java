@@ -0,0 +1,5 @@
+package com.greg.golf.error;
+
+public class TournamentRebuildInProgressException extends RuntimeException {
+
+}
@@ -20,4 +20,26 @@ public interface CycleResultRepository extends JpaRepository<CycleResult, Long>
     @Modifying
     @Query(value = "DELETE FROM cycle_result c where c.cycle_id = :cycleId", nativeQuery = true)
     void deleteForCycle(@Param("cycleId") Long cycleId);
+
+    // players without standing recorded up to and including the given tournament
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM cycle_result c WHERE c.cycle_id = :cycleId AND NOT EXISTS (SELECT 1 " +
+            "FROM cycle_standing s JOIN cycle_tournament t ON t.id = s.cycle_tournament_id " +
+            "WHERE t.cycle_id = :cycleId AND t.id <= :cycleTournamentId AND s.player_name = c.player_name)",
+            nativeQuery = true)
+    int deleteWithoutStandings(@Param("cycleId") Long cycleId, @Param("cycleTournamentId") Long cycleTournamentId);
+
+    // removes the given number of last rounds and sets total and cycle score from standing recorded
+    // up to and including the given tournament
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE cycle_result c SET total = s.total, cycle_result = s.cycle_result, " +
+            "results = ARRAY(SELECT x FROM unnest(c.results) WITH ORDINALITY u(x, i) " +
+            "WHERE i <= cardinality(c.results) - :rounds ORDER BY i) " +
+            "FROM (SELECT DISTINCT ON (s.player_name) s.player_name, s.total, s.cycle_result FROM cycle_standing s " +
+            "JOIN cycle_tournament t ON t.id = s.cycle_tournament_id " +
+            "WHERE t.cycle_id = :cycleId AND t.id <= :cycleTournamentId " +
+            "ORDER BY s.player_name, s.cycle_tournament_id DESC) s " +
+            "WHERE c.cycle_id = :cycleId AND c.player_name = s.player_name", nativeQuery = true)
+    int restoreStandings(@Param("cycleId") Long cycleId, @Param("cycleTournamentId") Long cycleTournamentId,
+                         @Param("rounds") int rounds);
 }
@@ -0,0 +1,32 @@
+package com.greg.golf.repository;
+
+import com.greg.golf.entity.CycleStanding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CycleStandingRepository extends JpaRepository<CycleStanding, Long> {
+
+    // standings of players who scored in the last tournament or appeared in the cycle for the first time
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO cycle_standing (cycle_tournament_id, player_name, total, cycle_result) " +
+            "SELECT :cycleTournamentId, c.player_name, c.total, c.cycle_result FROM cycle_result c " +
+            "WHERE c.cycle_id = :cycleId AND (EXISTS (SELECT 1 FROM unnest(c.results) WITH ORDINALITY u(x, i) " +
+            "WHERE i > cardinality(c.results) - :rounds AND x <> 0) OR NOT EXISTS (SELECT 1 FROM cycle_standing s " +
+            "JOIN cycle_tournament t ON t.id = s.cycle_tournament_id WHERE t.cycle_id = :cycleId " +
+            "AND s.player_name = c.player_name))", nativeQuery = true)
+    int recordStandings(@Param("cycleId") Long cycleId, @Param("cycleTournamentId") Long cycleTournamentId,
+                        @Param("rounds") int rounds);
+
+    // the latest standing of each player recorded up to and including the given tournament
+    @Query(value = "SELECT s.* FROM (SELECT DISTINCT ON (s.player_name) s.* FROM cycle_standing s " +
+            "JOIN cycle_tournament t ON t.id = s.cycle_tournament_id " +
+            "WHERE t.cycle_id = :cycleId AND t.id <= :cycleTournamentId " +
+            "ORDER BY s.player_name, s.cycle_tournament_id DESC) s ORDER BY s.cycle_result DESC", nativeQuery = true)
+    List<CycleStanding> findStandings(@Param("cycleId") Long cycleId, @Param("cycleTournamentId") Long cycleTournamentId);
+}
@@ -16,4 +16,6 @@ public interface OnlineScoreCardRepository extends JpaRepository<OnlineScoreCard
 	List<OnlineScoreCard> getByOnlineRound(OnlineRound onlineRound);
 
 	Optional<OnlineScoreCard> findByOnlineRoundAndHole(OnlineRound onlineRound, Integer hole);
+
+	List<OnlineScoreCard> findByOnlineRoundAndSequenceGreaterThanOrderBySequence(OnlineRound onlineRound, Long sequence);
 }
@@ -1,5 +1,6 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +36,9 @@ public interface PlayerRoundRepository extends JpaRepository<PlayerRound, Long>
 	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
 	Optional<List<PlayerRound>> findByRoundIdOrderByPlayerId(Long roundId);
 
+	@Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+	List<PlayerRound> findByRoundIdIn(Collection<Long> roundIds);
+
 	@Transactional(propagation = Propagation.REQUIRED)
 	@Modifying
 	@Query("UPDATE PlayerRound pr SET pr.whs = :whs where pr.playerId = :playerId AND pr.roundId = :roundId")
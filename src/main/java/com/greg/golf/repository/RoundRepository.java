@@ -1,5 +1,6 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -37,4 +38,16 @@ public interface RoundRepository extends JpaRepository<Round, Long> {
 	 @EntityGraph(attributePaths = { "player"})
      @NonNull
      Optional<Round> findById(@NonNull Long id);
+
+	 @EntityGraph(attributePaths = { "course", "scoreCard"})
+	 List<Round> findByIdIn(Collection<Long> ids);
+
+	 // rounds in date window having at least one tournament player whose round has not been added to any tournament yet
+	 @EntityGraph(attributePaths = { "course", "player"})
+	 @Query("SELECT r FROM Round r WHERE r.roundDate BETWEEN :startDate AND :endDate AND EXISTS " +
+			"(SELECT pr.id FROM PlayerRound pr, TournamentPlayer tp WHERE pr.roundId = r.id AND pr.tournamentId IS NULL " +
+			"AND tp.tournamentId = :tournamentId AND tp.playerId = pr.playerId) ORDER BY r.roundDate")
+	 List<Round> findTournamentCandidates(@Param("tournamentId") Long tournamentId,
+										  @Param("startDate") Date startDate,
+										  @Param("endDate") Date endDate);
 }
@@ -1,6 +1,7 @@
 package com.greg.golf.repository;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,8 @@ public interface TournamentResultRepository extends JpaRepository<TournamentResu
 	
 	//test required !!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!
 	Optional<TournamentResult> findByTournament(Tournament tournament);
+
+	List<TournamentResult> findByTournamentAndPlayerIdIn(Tournament tournament, Collection<Long> playerIds);
 	
 	@EntityGraph(attributePaths = { "player"})
 	List<TournamentResult> findByTournamentOrderByPlayedRoundsDescStbNetDesc(Tournament tournament);
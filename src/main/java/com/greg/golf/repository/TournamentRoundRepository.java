@@ -1,5 +1,6 @@
 package com.greg.golf.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,4 +15,6 @@ public interface TournamentRoundRepository extends JpaRepository<TournamentRound
 	
 	List<TournamentRound> findByTournamentResultOrderByIdAsc(TournamentResult tournamentResult);
 
+	List<TournamentRound> findByTournamentResultInOrderByIdAsc(Collection<TournamentResult> tournamentResults);
+
 }
@@ -1,12 +1,31 @@
 package com.greg.golf.security;
 
+import com.greg.golf.service.OnlineLeaderboardService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
+import com.greg.golf.service.TournamentLeaderboardPublisher;
+import lombok.NonNull;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.config.annotation.web.messaging.MessageSecurityMetadataSourceRegistry;
 import org.springframework.security.config.annotation.web.socket.AbstractSecurityWebSocketMessageBrokerConfigurer;
 
 @Configuration
 public class SocketSecurityConfig extends AbstractSecurityWebSocketMessageBrokerConfigurer {
 
+	private final SubscriptionAuthorization subscriptionAuthorization;
+
+	// lazy as the publisher depends on the messaging template created by the broker configuration
+	public SocketSecurityConfig(@Lazy SubscriptionAuthorization subscriptionAuthorization) {
+		this.subscriptionAuthorization = subscriptionAuthorization;
+	}
+
 	@Override
 	protected boolean sameOriginDisabled() {
 		return true;
@@ -14,9 +33,48 @@ public class SocketSecurityConfig extends AbstractSecurityWebSocketMessageBroker
 
 	@Override
 	protected void configureInbound(MessageSecurityMetadataSourceRegistry messages) {
+		// clients may subscribe only to destinations of an online round or a course, in json or compact layout,
+		// a course leaderboard or a tournament and cannot send directly to broker destinations
+		// former subscriptions to /topic are denied, hole results are no longer sent there
 		messages
 			.simpDestMatchers("/websocket/**").authenticated()
+			.simpSubscribeDestMatchers(OnlineScoreCardPublisher.ROUND_DESTINATION + "*",
+					OnlineScoreCardPublisher.COURSE_DESTINATION + "*",
+					OnlineScoreCardPublisher.BINARY_ROUND_DESTINATION + "*",
+					OnlineScoreCardPublisher.BINARY_COURSE_DESTINATION + "*",
+					OnlineLeaderboardService.DESTINATION + "*",
+					TournamentLeaderboardPublisher.DESTINATION + "*").authenticated()
+			.simpTypeMatchers(SimpMessageType.SUBSCRIBE).denyAll()
+			.simpMessageDestMatchers("/topic/**").denyAll()
 			.anyMessage().authenticated();
 	}
 
+	// runs after the authorization above, so only authenticated subscriptions of allowed destinations are checked
+	@Override
+	protected void customizeClientInboundChannel(ChannelRegistration registration) {
+		registration.interceptors(new SubscriptionInterceptor(subscriptionAuthorization));
+	}
+
+	// the watched online round, course or tournament must exist
+	static class SubscriptionInterceptor implements ChannelInterceptor {
+
+		private final SubscriptionAuthorization subscriptionAuthorization;
+
+		SubscriptionInterceptor(SubscriptionAuthorization subscriptionAuthorization) {
+			this.subscriptionAuthorization = subscriptionAuthorization;
+		}
+
+		@Override
+		public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+
+			if (SimpMessageType.SUBSCRIBE.equals(SimpMessageHeaderAccessor.getMessageType(message.getHeaders()))) {
+				var destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+				if (destination == null || !subscriptionAuthorization.canWatch(destination)) {
+					throw new AccessDeniedException("Subscription to " + destination + " denied");
+				}
+			}
+			return message;
+		}
+	}
+
 }
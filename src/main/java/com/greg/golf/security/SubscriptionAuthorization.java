@@ -0,0 +1,66 @@
+package com.greg.golf.security;
+
+import com.greg.golf.repository.TournamentRepository;
+import com.greg.golf.service.CourseRegistry;
+import com.greg.golf.service.OnlineLeaderboardService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
+import com.greg.golf.service.TournamentLeaderboardPublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.NoSuchElementException;
+
+// online rounds, courses and tournaments are public to every signed in player, so any authenticated spectator
+// may watch them, the subscription is accepted only if the watched round, course or tournament exists
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SubscriptionAuthorization {
+
+    private final OnlineScoreCardPublisher onlineScoreCardPublisher;
+    private final CourseRegistry courseRegistry;
+    private final TournamentRepository tournamentRepository;
+
+    public boolean canWatch(String destination) {
+
+        try {
+            if (destination.startsWith(OnlineScoreCardPublisher.ROUND_DESTINATION)) {
+                return onlineScoreCardPublisher.roundExists(id(destination, OnlineScoreCardPublisher.ROUND_DESTINATION));
+            }
+            if (destination.startsWith(OnlineScoreCardPublisher.BINARY_ROUND_DESTINATION)) {
+                return onlineScoreCardPublisher.roundExists(
+                        id(destination, OnlineScoreCardPublisher.BINARY_ROUND_DESTINATION));
+            }
+            if (destination.startsWith(OnlineScoreCardPublisher.COURSE_DESTINATION)) {
+                return courseExists(id(destination, OnlineScoreCardPublisher.COURSE_DESTINATION));
+            }
+            if (destination.startsWith(OnlineScoreCardPublisher.BINARY_COURSE_DESTINATION)) {
+                return courseExists(id(destination, OnlineScoreCardPublisher.BINARY_COURSE_DESTINATION));
+            }
+            if (destination.startsWith(OnlineLeaderboardService.DESTINATION)) {
+                return courseExists(id(destination, OnlineLeaderboardService.DESTINATION));
+            }
+            if (destination.startsWith(TournamentLeaderboardPublisher.DESTINATION)) {
+                return tournamentRepository.existsById(id(destination, TournamentLeaderboardPublisher.DESTINATION));
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Invalid destination " + destination);
+        }
+        return false;
+    }
+
+    private boolean courseExists(Long courseId) {
+
+        try {
+            courseRegistry.getCourse(courseId);
+            return true;
+        } catch (NoSuchElementException e) {
+            return false;
+        }
+    }
+
+    private static Long id(String destination, String prefix) {
+        return Long.valueOf(destination.substring(prefix.length()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.greg.golf.service;
+
+import com.greg.golf.service.helpers.ScoringKernel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// in memory reference data of courses and tees used for handicap and score calculations
+// all courses are loaded at startup, missing ones are loaded on first use
+// course data is dropped after commit of any change of the course, tees or holes
+@Slf4j
+@Service("courseRegistry")
+@RequiredArgsConstructor
+public class CourseRegistry {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, CourseData> courses = new ConcurrentHashMap<>();
+    private final Map<Long, TeeData> tees = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+
+        try {
+            courses.putAll(loadCourses(null));
+            tees.putAll(loadTees(null));
+            log.info("Course registry loaded with " + courses.size() + " courses and " + tees.size() + " tees");
+        } catch (DataAccessException e) {
+            // registry is filled on demand in such case
+            log.error("Unable to load course registry: " + e.getMessage());
+        }
+    }
+
+    public CourseData getCourse(Long courseId) {
+
+        return courses.computeIfAbsent(courseId, id -> {
+            var course = loadCourses(id).get(id);
+            if (course == null) {
+                throw new NoSuchElementException("Course " + id + " not found");
+            }
+            return course;
+        });
+    }
+
+    public TeeData getTee(Long teeId) {
+
+        return tees.computeIfAbsent(teeId, id -> {
+            var tee = loadTees(id).get(id);
+            if (tee == null) {
+                throw new NoSuchElementException("Tee " + id + " not found");
+            }
+            return tee;
+        });
+    }
+
+    // drops course and its tees after commit, if called within transaction, or immediately
+    public void invalidate(Long courseId) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(courseId);
+                }
+            });
+        } else {
+            evict(courseId);
+        }
+    }
+
+    private void evict(Long courseId) {
+
+        courses.remove(courseId);
+        tees.values().removeIf(tee -> tee.courseId() == courseId);
+        log.debug("Course " + courseId + " removed from registry");
+    }
+
+    // all courses if course id is null
+    private Map<Long, CourseData> loadCourses(Long courseId) {
+
+        var loaded = new HashMap<Long, CourseData>();
+        var args = courseId == null ? new Object[0] : new Object[] {courseId};
+
+        jdbcTemplate.query("SELECT id, name, par FROM course" + (courseId == null ? "" : " WHERE id = ?"),
+                rs -> {
+                    var id = rs.getLong(1);
+                    loaded.put(id, new CourseData(id, rs.getString(2), rs.getInt(3),
+                            new int[ScoringKernel.HOLES], new int[ScoringKernel.HOLES]));
+                }, args);
+
+        jdbcTemplate.query("SELECT course_id, number, par, si FROM hole" + (courseId == null ? "" : " WHERE course_id = ?"),
+                rs -> {
+                    var course = loaded.get(rs.getLong(1));
+                    int number = rs.getInt(2);
+                    if (course != null && number >= 1 && number <= ScoringKernel.HOLES) {
+                        course.par()[number - 1] = rs.getInt(3);
+                        course.si()[number - 1] = rs.getInt(4);
+                    }
+                }, args);
+
+        return loaded;
+    }
+
+    // all tees if tee id is null
+    private Map<Long, TeeData> loadTees(Long teeId) {
+
+        var loaded = new HashMap<Long, TeeData>();
+
+        jdbcTemplate.query("SELECT id, course_id, cr, sr, tee_type FROM course_tee" + (teeId == null ? "" : " WHERE id = ?"),
+                rs -> {
+                    var id = rs.getLong(1);
+                    loaded.put(id, new TeeData(id, rs.getLong(2), rs.getFloat(3), rs.getInt(4), rs.getInt(5)));
+                }, teeId == null ? new Object[0] : new Object[] {teeId});
+
+        return loaded;
+    }
+
+    // par and si are indexed by hole number - 1, arrays must not be modified
+    public record CourseData(long id, String name, int coursePar, int[] par, int[] si) {
+    }
+
+    public record TeeData(long id, long courseId, float cr, int sr, int teeType) {
+    }
+}
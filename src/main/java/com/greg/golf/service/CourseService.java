@@ -41,6 +41,7 @@ public class CourseService {
 	private final CourseTeeRepository courseTeeRepository;
 	private final FavouriteCourseRepository favouriteCourseRepository;
 	private final HoleRepository holeRepository;
+	private final CourseRegistry courseRegistry;
 
 	@Lazy
 	private final CourseService self;
@@ -61,6 +62,8 @@ public class CourseService {
 
 		courseTee.setCourse(course);
 		courseTeeRepository.save(courseTee);
+
+		courseRegistry.invalidate(courseId);
 	}
 
 
@@ -133,7 +136,10 @@ public class CourseService {
 		course.getTees().forEach(h -> h.setCourse(course));
 		course.setHistorical(false);
 
-		return courseRepository.save(course);
+		var savedCourse = courseRepository.save(course);
+		courseRegistry.invalidate(savedCourse.getId());
+
+		return savedCourse;
 	}
 
 	@Transactional
@@ -142,7 +148,7 @@ public class CourseService {
 		RoleVerification.verifyRole(Common.ADMIN, "Attempt to delete course by unauthorized user");
 
 		courseRepository.deleteById(id);
-
+		courseRegistry.invalidate(id);
 	}
 
 	@Transactional(readOnly = true)
@@ -181,6 +187,8 @@ public class CourseService {
 
 			// remove course from favorites
 			favouriteCourseRepository.deleteByCourse(course);
+
+			courseRegistry.invalidate(courseId);
 		} else {
 			log.error("Attempt to move course to history by unauthorized user");
 			throw new UnauthorizedException();
@@ -0,0 +1,188 @@
+package com.greg.golf.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greg.golf.controller.dto.EagleResultDto;
+import com.greg.golf.entity.Cycle;
+import com.greg.golf.entity.CycleTournament;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.repository.CycleRepository;
+import com.greg.golf.repository.CycleTournamentRepository;
+import com.greg.golf.service.helpers.CycleStandings;
+import com.greg.golf.service.helpers.RoleVerification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+// imports Eagle results of the cycle tournament read record by record from the request stream
+// results are upserted to cycle_result in jdbc batches and totals are recalculated in the database
+// so neither the whole payload nor all cycle results are kept in memory
+@Slf4j
+@Service("cycleImportService")
+@RequiredArgsConstructor
+public class CycleImportService {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String ITEMS = "items";
+
+    private final CycleRepository cycleRepository;
+    private final CycleTournamentRepository cycleTournamentRepository;
+    private final CycleService cycleService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // input is either an array of Eagle results or an object with array of results in items field
+    @Transactional
+    public CycleTournament importCycleTournament(Long cycleId, String name, Integer rounds, Boolean bestOf,
+                                                 InputStream inputStream) throws IOException {
+
+        RoleVerification.verifyRole(Common.ADMIN, "Attempt to add tournament to cycle by unauthorized user");
+
+        var cycle = cycleRepository.findById(cycleId).orElseThrow();
+
+        var cycleTournament = new CycleTournament();
+        cycleTournament.setCycle(cycle);
+        cycleTournament.setName(name);
+        cycleTournament.setRounds(rounds);
+        cycleTournament.setBestOf(bestOf);
+        cycleTournament.setStandings(true);
+        cycleTournament = cycleTournamentRepository.save(cycleTournament);
+
+        // all players have the same number of results so the length of any of them is the length before import
+        Integer previousRounds = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(cardinality(results)), 0) FROM cycle_result WHERE cycle_id = ?", Integer.class, cycleId);
+        var importer = new Importer(cycle, Boolean.TRUE.equals(bestOf), previousRounds == null ? 0 : previousRounds);
+
+        try (var parser = objectMapper.getFactory().createParser(inputStream)) {
+            var token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                importer.readItems(parser);
+            } else if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var field = parser.currentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && ITEMS.equals(field)) {
+                        importer.readItems(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                throw new IllegalArgumentException("Eagle results must be array or object with items");
+            }
+        }
+        importer.flush();
+
+        // players who did not play that tournament get empty results
+        if (importer.previousRounds > 0) {
+            jdbcTemplate.update(con -> {
+                var ps = con.prepareStatement("UPDATE cycle_result SET results = results || ? " +
+                        "WHERE cycle_id = ? AND cardinality(results) = ?");
+                ps.setArray(1, toSqlArray(con, new int[CycleService.ROUNDS_PER_TOURNAMENT]));
+                ps.setLong(2, cycleId);
+                ps.setInt(3, importer.previousRounds);
+                return ps;
+            });
+        }
+
+        // cycle score is the sum of best rounds or of all rounds if best rounds is 0, total is always the sum of all rounds
+        jdbcTemplate.update("UPDATE cycle_result c SET total = (SELECT COALESCE(SUM(x), 0) FROM unnest(c.results) x), " +
+                "cycle_result = (SELECT COALESCE(SUM(x), 0) FROM (SELECT x FROM unnest(c.results) x ORDER BY x DESC LIMIT ?) b) " +
+                "WHERE c.cycle_id = ?", cycle.getBestRounds() == 0 ? Integer.MAX_VALUE : cycle.getBestRounds(), cycleId);
+
+        cycleService.recordStandings(cycleTournament);
+
+        log.info("Imported " + importer.imported + " results of cycle tournament " + name + ", skipped " + importer.skipped);
+
+        return cycleTournament;
+    }
+
+    private static Array toSqlArray(Connection con, int[] values) throws SQLException {
+        return con.createArrayOf("integer", Arrays.stream(values).boxed().toArray());
+    }
+
+    private class Importer {
+
+        private final Cycle cycle;
+        private final boolean bestOf;
+        private final int previousRounds;
+        private final Set<String> players = new HashSet<>();
+        private final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        private int imported;
+        private int skipped;
+
+        Importer(Cycle cycle, boolean bestOf, int previousRounds) {
+            this.cycle = cycle;
+            this.bestOf = bestOf;
+            this.previousRounds = previousRounds;
+        }
+
+        void readItems(JsonParser parser) throws IOException {
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                add(objectMapper.readValue(parser, EagleResultDto.class));
+            }
+        }
+
+        private void add(EagleResultDto eagleResult) {
+
+            // exclude incomplete records and players with too high handicap
+            if (eagleResult.getFirstName() == null || eagleResult.getLastName() == null || eagleResult.getR() == null
+                    || eagleResult.getWhs() == null || eagleResult.getWhs() > cycle.getMaxWhs()) {
+                skipped++;
+                return;
+            }
+
+            var playerName = eagleResult.getLastName() + " " + eagleResult.getFirstName();
+            if (!players.add(playerName)) {
+                log.warn("Duplicated result of " + playerName + " skipped");
+                skipped++;
+                return;
+            }
+
+            // the best round from the tournament is saved at index 0 from four possible tournament rounds
+            var results = Arrays.copyOf(eagleResult.getR(), CycleService.ROUNDS_PER_TOURNAMENT);
+            if (bestOf) {
+                int max = Arrays.stream(eagleResult.getR()).max().orElse(0);
+                results = new int[CycleService.ROUNDS_PER_TOURNAMENT];
+                results[0] = max;
+            }
+
+            batch.add(new Object[] {playerName, results});
+            imported++;
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        // new players get empty results for previous tournaments, existing ones get results appended
+        void flush() {
+
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            jdbcTemplate.batchUpdate("INSERT INTO cycle_result (player_name, results, total, cycle_result, cycle_id) " +
+                    "VALUES (?, ?, 0, 0, ?) ON CONFLICT (cycle_id, player_name) " +
+                    "DO UPDATE SET results = cycle_result.results || ?", batch, batch.size(), (ps, row) -> {
+                        var results = (int[]) row[1];
+                        var con = ps.getConnection();
+                        ps.setString(1, (String) row[0]);
+                        ps.setArray(2, toSqlArray(con, CycleStandings.prepend(previousRounds, results)));
+                        ps.setLong(3, cycle.getId());
+                        ps.setArray(4, toSqlArray(con, results));
+                    });
+            batch.clear();
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.greg.golf.service;
 import com.greg.golf.controller.dto.EagleResultDto;
 import com.greg.golf.entity.Cycle;
 import com.greg.golf.entity.CycleResult;
+import com.greg.golf.entity.CycleStanding;
 import com.greg.golf.entity.CycleTournament;
 import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.repository.CycleRepository;
 import com.greg.golf.repository.CycleResultRepository;
+import com.greg.golf.repository.CycleStandingRepository;
 import com.greg.golf.repository.CycleTournamentRepository;
+import com.greg.golf.service.helpers.CycleStandings;
 import com.greg.golf.service.helpers.RoleVerification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,12 +20,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -30,7 +29,7 @@ import java.util.stream.IntStream;
 @Service("cycleService")
 public class CycleService {
 
-    private static final int ROUNDS_PER_TOURNAMENT = 4;
+    static final int ROUNDS_PER_TOURNAMENT = 4;
 
     private final CycleRepository cycleRepository;
 
@@ -38,6 +37,8 @@ public class CycleService {
 
     private final CycleResultRepository cycleResultRepository;
 
+    private final CycleStandingRepository cycleStandingRepository;
+
     @Transactional
     public Cycle addCycle(Cycle cycle) {
 
@@ -66,9 +67,22 @@ public class CycleService {
             }
         }
 
-        addResults(cycleTournament, eagleResultDto);
+        // tournament is saved first as its id is required for standings
+        cycleTournament.setStandings(true);
+        var savedTournament = cycleTournamentRepository.save(cycleTournament);
+
+        addResults(savedTournament, eagleResultDto);
+        recordStandings(savedTournament);
 
-        return cycleTournamentRepository.save(cycleTournament);
+        return savedTournament;
+    }
+
+    // records standings of players whose results changed in the last added tournament
+    public void recordStandings(CycleTournament cycleTournament) {
+
+        var recorded = cycleStandingRepository.recordStandings(cycleTournament.getCycle().getId(), cycleTournament.getId(),
+                ROUNDS_PER_TOURNAMENT);
+        log.debug("Recorded " + recorded + " standings for cycle tournament " + cycleTournament.getId());
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -84,7 +98,12 @@ public class CycleService {
             var lstTournament = tournaments.get(tournaments.size() - 1);
 
             // update results for cycle with more than 1 tournament otherwise delete all results
-            if (tournaments.size() > 1) {
+            // if standings of all previous tournaments are recorded they are restored instead of recalculated
+            if (tournaments.size() > 1 && hasStandings(tournaments.subList(0, tournaments.size() - 1))) {
+                var previousTournament = tournaments.get(tournaments.size() - 2);
+                cycleResultRepository.deleteWithoutStandings(cycle.getId(), previousTournament.getId());
+                cycleResultRepository.restoreStandings(cycle.getId(), previousTournament.getId(), ROUNDS_PER_TOURNAMENT);
+            } else if (tournaments.size() > 1) {
                 cycleResultRepository.saveAll(removeTournamentFromResult(cycle, lstTournament));
             } else {
                 cycleResultRepository.deleteForCycle(cycle.getId());
@@ -94,12 +113,15 @@ public class CycleService {
         }
     }
 
+    private static boolean hasStandings(List<CycleTournament> tournaments) {
+        return tournaments.stream().allMatch(tournament -> Boolean.TRUE.equals(tournament.getStandings()));
+    }
+
     private List<CycleResult> removeTournamentFromResult(Cycle cycle, CycleTournament cycleTournament) {
         var results = cycleResultRepository.findByCycle(cycle);
 
         // first remove results
-        results.forEach(result -> result.setResults(Arrays.stream(result.getResults())
-                .limit(result.getResults().length - (long)ROUNDS_PER_TOURNAMENT).toArray()));
+        results.forEach(result -> result.setResults(CycleStandings.removeLast(result.getResults(), ROUNDS_PER_TOURNAMENT)));
 
         // then update totals
         return updCycleResultAndTotal(cycleTournament, results);
@@ -142,13 +164,11 @@ public class CycleService {
 
                 var cycleResult = cycleResultMap.get(tournamentResult.getPlayerName());
 
-                cycleResult.setResults(IntStream.concat(Arrays.stream(cycleResult.getResults()),
-                        Arrays.stream(tournamentResult.getResults())).toArray());
+                cycleResult.setResults(CycleStandings.append(cycleResult.getResults(), tournamentResult.getResults()));
             // if that player played the first time in the tournament
             } else {
 
-                tournamentResult.setResults(IntStream.concat(Arrays.stream(new int[cycleResultSize]),
-                        Arrays.stream(tournamentResult.getResults())).toArray());
+                tournamentResult.setResults(CycleStandings.prepend(cycleResultSize, tournamentResult.getResults()));
 
                 cycleResultMap.put(tournamentResult.getPlayerName(), tournamentResult);
 
@@ -159,8 +179,7 @@ public class CycleService {
         cycleResultMap.values()
             .forEach(cycleResult -> {
                 if (cycleResult.getResults().length == cycleResultSize) {
-                    cycleResult.setResults(IntStream.concat(Arrays.stream(cycleResult.getResults()),
-                            Arrays.stream(new int[ROUNDS_PER_TOURNAMENT])).toArray());
+                    cycleResult.setResults(Arrays.copyOf(cycleResult.getResults(), cycleResultSize + ROUNDS_PER_TOURNAMENT));
                 }
             });
 
@@ -187,32 +206,9 @@ public class CycleService {
 
     private List<CycleResult> updCycleResultAndTotal(CycleTournament cycleTournament, List<CycleResult> cycleResults ) {
 
-        // if all rounds should be included cycle results equals total
-        if (cycleTournament.getCycle().getBestRounds() == 0) {
-            cycleResults.forEach( cycleResult ->  {
-                cycleResult.setCycleScore(
-                        Arrays.stream(cycleResult.getResults())
-                                .reduce(0, Integer::sum)
-                );
-                cycleResult.setTotal(cycleResult.getCycleScore());
-            });
-        // otherwise, get best rounds from cycle results according to specified rule
-        } else {
-            cycleResults.forEach( cycleResult -> {
-
-                cycleResult.setCycleScore(
-                        Arrays.stream(cycleResult.getResults())
-                                .boxed()
-                                .sorted(Comparator.reverseOrder())
-                                .limit(cycleTournament.getCycle().getBestRounds())
-                                .reduce(0, Integer::sum)
-                );
-                cycleResult.setTotal(
-                        Arrays.stream(cycleResult.getResults())
-                                .reduce(0, Integer::sum)
-                );
-            });
-        }
+        // cycle score is the sum of best rounds or of all rounds if best rounds is 0, total is always the sum of all rounds
+        CycleStandings.update(cycleResults, cycleTournament.getCycle().getBestRounds());
+
         return cycleResults;
     }
 
@@ -236,6 +232,52 @@ public class CycleService {
         return cycleResultRepository.findByCycleOrderByCycleScoreDesc(cycle);
     }
 
+    // standings after the given tournament, taken from recorded standings if possible
+    // otherwise calculated from the results of the tournaments up to and including the given one
+    @Transactional(readOnly = true)
+    public List<CycleStanding> findCycleStandings(Long cycleId, Long cycleTournamentId) {
+
+        var tournaments = findAllCycleTournaments(cycleId);
+
+        int position = 0;
+        while (position < tournaments.size() && !tournaments.get(position).getId().equals(cycleTournamentId)) {
+            position++;
+        }
+        if (position == tournaments.size()) {
+            throw new NoSuchElementException("Cycle tournament " + cycleTournamentId + " not found");
+        }
+
+        if (hasStandings(tournaments.subList(0, position + 1))) {
+            return cycleStandingRepository.findStandings(cycleId, cycleTournamentId);
+        }
+
+        var cycle = cycleRepository.findById(cycleId).orElseThrow();
+        var rounds = (position + 1) * ROUNDS_PER_TOURNAMENT;
+
+        // copies are used to not modify the managed results
+        var cycleResults = cycleResultRepository.findByCycle(cycle).stream()
+                .filter(cycleResult -> Arrays.stream(cycleResult.getResults()).limit(rounds).anyMatch(r -> r != 0))
+                .map(cycleResult -> {
+                    var copy = new CycleResult();
+                    copy.setPlayerName(cycleResult.getPlayerName());
+                    copy.setResults(Arrays.copyOf(cycleResult.getResults(), rounds));
+                    return copy;
+                })
+                .toList();
+        CycleStandings.update(cycleResults, cycle.getBestRounds());
+
+        return cycleResults.stream()
+                .map(cycleResult -> {
+                    var cycleStanding = new CycleStanding();
+                    cycleStanding.setPlayerName(cycleResult.getPlayerName());
+                    cycleStanding.setTotal(cycleResult.getTotal());
+                    cycleStanding.setCycleScore(cycleResult.getCycleScore());
+                    return cycleStanding;
+                })
+                .sorted(Comparator.comparing(CycleStanding::getCycleScore).reversed())
+                .toList();
+    }
+
     public void closeCycle(Long cycleId) {
 
         RoleVerification.verifyRole(Common.ADMIN, "Attempt to close cycle by unauthorized user");
@@ -0,0 +1,338 @@
+package com.greg.golf.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.controller.dto.OnlineLeaderboardDeltaDto;
+import com.greg.golf.controller.dto.OnlineLeaderboardRowDto;
+import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.service.helpers.ScoringKernel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+// live leaderboard of online rounds played on the course, kept in memory and updated with every hole result
+// online rounds of the course are read from database once, on the first read or hole result of that course
+// after each update rows with changed rank or score are sent to /topic/leaderboard/{courseId}, only the changed
+// entry is moved to its new rank instead of sorting the whole leaderboard
+// leaderboards are kept only for courses with online rounds and both caches are bounded
+@Slf4j
+@Service("onlineLeaderboardService")
+public class OnlineLeaderboardService {
+
+    public static final String DESTINATION = "/topic/leaderboard/";
+
+    private static final String ROUNDS_QUERY = "SELECT r.id, r.course_id, r.course_tee_id, p.nick, p.whs, s.hole, s.stroke " +
+            "FROM online_round r JOIN player p ON p.id = r.player_id " +
+            "LEFT JOIN online_score_card s ON s.online_round_id = r.id WHERE ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CourseRegistry courseRegistry;
+    private final OnlineScoreCardBuffer onlineScoreCardBuffer;
+    private final SimpMessagingTemplate template;
+
+    private final Cache<Long, Leaderboard> leaderboards;
+    private final Cache<Long, Long> roundCourses;
+
+    public OnlineLeaderboardService(JdbcTemplate jdbcTemplate, CourseRegistry courseRegistry,
+                                    OnlineScoreCardBuffer onlineScoreCardBuffer, SimpMessagingTemplate template,
+                                    OnlineRoundServiceConfig onlineRoundServiceConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.courseRegistry = courseRegistry;
+        this.onlineScoreCardBuffer = onlineScoreCardBuffer;
+        this.template = template;
+
+        leaderboards = CacheBuilder.newBuilder()
+                .maximumSize(onlineRoundServiceConfig.getCourseCacheSize())
+                .build();
+        roundCourses = CacheBuilder.newBuilder()
+                .maximumSize(onlineRoundServiceConfig.getRoundCacheSize())
+                .build();
+    }
+
+    // empty for courses without online rounds, these are not kept
+    public List<OnlineLeaderboardRowDto> getLeaderboard(Long courseId) {
+
+        var leaderboard = getOrLoad(courseId, false);
+        if (leaderboard == null) {
+            return new ArrayList<>();
+        }
+        synchronized (leaderboard) {
+            return leaderboard.rows();
+        }
+    }
+
+    public void update(OnlineScoreCard onlineScoreCard) {
+        afterCommit(() -> apply(onlineScoreCard));
+    }
+
+    // online rounds have been deleted, leaderboards are read again when needed
+    public void invalidate() {
+
+        afterCommit(() -> {
+            leaderboards.invalidateAll();
+            roundCourses.invalidateAll();
+        });
+    }
+
+    // runs the action after commit, if called within transaction, or immediately
+    private static void afterCommit(Runnable action) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    void apply(OnlineScoreCard onlineScoreCard) {
+
+        try {
+            var orId = onlineScoreCard.getOrId();
+            var courseId = roundCourses.getIfPresent(orId);
+            if (courseId == null) {
+                var courseIds = jdbcTemplate.queryForList("SELECT course_id FROM online_round WHERE id = ?",
+                        Long.class, orId);
+                if (courseIds.isEmpty()) {
+                    log.debug("Online round " + orId + " not found");
+                    return;
+                }
+                courseId = courseIds.get(0);
+            }
+
+            // the course has at least this online round
+            var leaderboard = getOrLoad(courseId, true);
+            synchronized (leaderboard) {
+                // online round started after the leaderboard has been loaded
+                if (!leaderboard.contains(orId)) {
+                    load("r.id = ?", orId).forEach(leaderboard::add);
+                }
+                leaderboard.set(orId, onlineScoreCard.getHole(), onlineScoreCard.getStroke());
+
+                var delta = leaderboard.delta();
+                if (delta != null) {
+                    template.convertAndSend(DESTINATION + courseId, delta);
+                }
+            }
+        } catch (RuntimeException e) {
+            // leaderboard can always be reloaded so failed update must not break saving of the score card
+            log.error("Unable to update online leaderboard: " + e.getMessage());
+        }
+    }
+
+    // null if the course has no online rounds and the empty leaderboard is not to be kept
+    private Leaderboard getOrLoad(Long courseId, boolean keepEmpty) {
+
+        return leaderboards.asMap().computeIfAbsent(courseId, id -> {
+            var leaderboard = new Leaderboard(id);
+            load("r.course_id = ?", id).forEach(leaderboard::add);
+            if (leaderboard.isEmpty() && !keepEmpty) {
+                return null;
+            }
+            // the loaded state is the published one, clients read it by REST
+            leaderboard.delta();
+            log.debug("Online leaderboard of course " + id + " loaded");
+            return leaderboard;
+        });
+    }
+
+    // online rounds with saved and still buffered score cards
+    // no score card is missed by the flush running between reading saved and pending ones
+    private Collection<Entry> load(String condition, Long id) {
+        return onlineScoreCardBuffer.withoutFlush(() -> read(condition, id));
+    }
+
+    private Collection<Entry> read(String condition, Long id) {
+
+        var entries = new LinkedHashMap<Long, Entry>();
+
+        jdbcTemplate.query(ROUNDS_QUERY + condition, rs -> {
+            var orId = rs.getLong(1);
+            var entry = entries.get(orId);
+            if (entry == null) {
+                var courseId = rs.getLong(2);
+                var course = courseRegistry.getCourse(courseId);
+                var tee = courseRegistry.getTee(rs.getLong(3));
+                var courseHcp = ScoringKernel.courseHcp(rs.getFloat(5), tee.cr(), tee.sr(), course.coursePar());
+                entry = new Entry(orId, rs.getString(4), courseHcp, course.par(), course.si());
+                entries.put(orId, entry);
+                roundCourses.put(orId, courseId);
+            }
+            if (rs.getObject(6) != null) {
+                entry.set(rs.getInt(6), rs.getInt(7));
+            }
+        }, id);
+
+        entries.values().forEach(entry -> onlineScoreCardBuffer.getPending(entry.orId)
+                .forEach(onlineScoreCard -> entry.set(onlineScoreCard.getHole(), onlineScoreCard.getStroke())));
+
+        return entries.values();
+    }
+
+    // leaderboard of one course, must be used within synchronized block
+    // entries are kept in rank order, the changed entry is moved to its new rank and only the ranks
+    // between its old and new position are sent
+    static final class Leaderboard {
+
+        private static final Comparator<Entry> ORDER = Comparator.comparingInt((Entry e) -> -e.stb)
+                .thenComparingInt(Entry::netToPar)
+                .thenComparingInt(e -> -e.holes)
+                .thenComparingLong(e -> e.orId);
+
+        private final long courseId;
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final List<Entry> ranking = new ArrayList<>();
+        // ranks changed since the last delta, none if from is greater than to
+        private int changedFrom = Integer.MAX_VALUE;
+        private int changedTo = -1;
+        private long sequence;
+
+        Leaderboard(long courseId) {
+            this.courseId = courseId;
+        }
+
+        boolean contains(long orId) {
+            return entries.containsKey(orId);
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        void add(Entry entry) {
+
+            if (entries.putIfAbsent(entry.orId, entry) == null) {
+                // entries ranked below move one rank down
+                changed(insert(entry), ranking.size() - 1);
+            }
+        }
+
+        void set(long orId, Integer hole, Integer stroke) {
+
+            var entry = entries.get(orId);
+            if (entry == null || hole == null || stroke == null) {
+                return;
+            }
+
+            // the entry is found by its score before the change
+            var from = Collections.binarySearch(ranking, entry, ORDER);
+            var previous = entry.toRow(from + 1);
+            ranking.remove(from);
+            entry.set(hole, stroke);
+            var to = insert(entry);
+
+            if (from != to || !previous.equals(entry.toRow(to + 1))) {
+                changed(Math.min(from, to), Math.max(from, to));
+            }
+        }
+
+        List<OnlineLeaderboardRowDto> rows() {
+            return rows(0, ranking.size() - 1);
+        }
+
+        // rows with rank or score changed since the last delta, null if nothing has been changed
+        OnlineLeaderboardDeltaDto delta() {
+
+            if (changedFrom > changedTo) {
+                return null;
+            }
+
+            var delta = new OnlineLeaderboardDeltaDto();
+            delta.setCourseId(courseId);
+            delta.setSequence(++sequence);
+            delta.setChanged(rows(changedFrom, changedTo));
+
+            changedFrom = Integer.MAX_VALUE;
+            changedTo = -1;
+            return delta;
+        }
+
+        private int insert(Entry entry) {
+
+            var index = -Collections.binarySearch(ranking, entry, ORDER) - 1;
+            ranking.add(index, entry);
+            return index;
+        }
+
+        private void changed(int from, int to) {
+
+            changedFrom = Math.min(changedFrom, from);
+            changedTo = Math.max(changedTo, to);
+        }
+
+        private List<OnlineLeaderboardRowDto> rows(int from, int to) {
+
+            var rows = new ArrayList<OnlineLeaderboardRowDto>(Math.max(to - from + 1, 0));
+            for (var i = from; i <= to; i++) {
+                rows.add(ranking.get(i).toRow(i + 1));
+            }
+            return rows;
+        }
+    }
+
+    // online round totals updated hole by hole, holes with 0 strokes are not played yet
+    static final class Entry {
+
+        private final long orId;
+        private final String nick;
+        private final int courseHcp;
+        private final int[] par;
+        private final int[] si;
+        private final int[] strokes = new int[ScoringKernel.HOLES];
+
+        private int holes;
+        private int gross;
+        private int parPlayed;
+        private int hcpPlayed;
+        private int stb;
+
+        Entry(long orId, String nick, int courseHcp, int[] par, int[] si) {
+            this.orId = orId;
+            this.nick = nick;
+            this.courseHcp = courseHcp;
+            this.par = par;
+            this.si = si;
+        }
+
+        void set(int hole, int stroke) {
+
+            if (hole < 1 || hole > ScoringKernel.HOLES) {
+                return;
+            }
+            count(hole - 1, -1);
+            strokes[hole - 1] = stroke;
+            count(hole - 1, 1);
+        }
+
+        private void count(int i, int sign) {
+
+            if (strokes[i] <= 0) {
+                return;
+            }
+            var hcp = ScoringKernel.holeHcp(courseHcp, si[i]);
+            holes += sign;
+            gross += sign * strokes[i];
+            parPlayed += sign * par[i];
+            hcpPlayed += sign * hcp;
+            stb += sign * Math.max(par[i] + hcp - strokes[i] + 2, 0);
+        }
+
+        int netToPar() {
+            return gross - hcpPlayed - parPlayed;
+        }
+
+        OnlineLeaderboardRowDto toRow(int rank) {
+            return new OnlineLeaderboardRowDto(orId, nick, rank, holes, gross, gross - parPlayed, netToPar(), stb);
+        }
+    }
+}
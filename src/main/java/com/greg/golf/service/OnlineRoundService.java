@@ -1,17 +1,29 @@
 package com.greg.golf.service;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
 
 import com.greg.golf.entity.Course;
 import com.greg.golf.entity.CourseTee;
@@ -30,18 +42,74 @@ import lombok.RequiredArgsConstructor;
 @Service("onlineRoundService")
 public class OnlineRoundService {
 
+	private static final String SAVED_HOLES = "SELECT online_round_id, hole FROM online_score_card " +
+			"WHERE online_round_id = ANY (?)";
+	private static final String UPSERT = "INSERT INTO online_score_card (online_round_id, player_id, hole, stroke, " +
+			"putt, penalty, time) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (online_round_id, hole) " +
+			"DO UPDATE SET stroke = EXCLUDED.stroke, putt = EXCLUDED.putt, penalty = EXCLUDED.penalty";
+	private static final String CHANGE_SEQUENCES = "SELECT id, change_sequence FROM online_round WHERE id = ANY (?)";
+	private static final String PURGED_ROUNDS = "SELECT id FROM online_round WHERE finalized OR date < ? " +
+			"ORDER BY id LIMIT ?";
+	private static final String DELETE_SCORE_CARDS = "DELETE FROM online_score_card WHERE online_round_id = ANY (?)";
+	private static final String DELETE_ROUNDS = "DELETE FROM online_round WHERE id = ANY (?)";
+
 	private final OnlineRoundRepository onlineRoundRepository;
 	private final OnlineScoreCardRepository onlineScoreCardRepository;
 	private final RoundService roundService;
-
-	@Lazy
-	private final OnlineRoundService self;
-
+	private final OnlineScoreCardBuffer onlineScoreCardBuffer;
+	private final OnlineLeaderboardService onlineLeaderboardService;
+	private final OnlineScoreCardSnapshots onlineScoreCardSnapshots;
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManager entityManager;
+	private final PlatformTransactionManager transactionManager;
+	private final OnlineRoundServiceConfig onlineRoundServiceConfig;
+
+	// finalized rounds and rounds not finished in time are deleted in chunks, each in its own transaction
+	// so locks are held only for one chunk, rounds being played are kept
 	@Scheduled(cron = "0 0 0 * * * ")
-	@Transactional
 	public void purge() {
-		log.info("Purge job for online rounds executed");
-		onlineRoundRepository.deleteAll();
+
+		var start = System.currentTimeMillis();
+		var staleDate = new Date(start - onlineRoundServiceConfig.getPurgeStaleHours() * 3600000L);
+		var chunkSize = onlineRoundServiceConfig.getPurgeChunkSize();
+		var transactionTemplate = new TransactionTemplate(transactionManager);
+
+		var rounds = 0;
+		var scoreCards = 0;
+		var chunks = 0;
+		int[] deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> purgeChunk(staleDate, chunkSize));
+			rounds += deleted[0];
+			scoreCards += deleted[1];
+			chunks++;
+		} while (deleted[0] == chunkSize);
+
+		onlineLeaderboardService.invalidate();
+		onlineScoreCardSnapshots.invalidate();
+		log.info("Purge job for online rounds executed: " + rounds + " online rounds and " + scoreCards +
+				" score cards deleted in " + chunks + " chunks, " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	// number of deleted online rounds and score cards
+	private int[] purgeChunk(Date staleDate, int chunkSize) {
+
+		var ids = jdbcTemplate.queryForList(PURGED_ROUNDS, Long.class, new Timestamp(staleDate.getTime()), chunkSize);
+		if (ids.isEmpty()) {
+			return new int[] {0, 0};
+		}
+
+		var scoreCards = jdbcTemplate.update(con -> {
+			var ps = con.prepareStatement(DELETE_SCORE_CARDS);
+			ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+			return ps;
+		});
+		var rounds = jdbcTemplate.update(con -> {
+			var ps = con.prepareStatement(DELETE_ROUNDS);
+			ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+			return ps;
+		});
+		return new int[] {rounds, scoreCards};
 	}
 
 	@Transactional
@@ -54,14 +122,99 @@ public class OnlineRoundService {
 
 	}
 
+	// saved holes of all rounds are read with one query and missing or updated score cards are written in one batch
 	@Transactional
 	public List<OnlineScoreCard> syncOnlineScoreCards(List<OnlineScoreCard> onlineScoreCards) {
+		return sync(onlineScoreCards);
+	}
 
-		onlineScoreCards.forEach(this::syncOnlineScoreCard);
+	// the same synchronization returning the change sequence of each synchronized online round acknowledged to the client
+	// it is read within the transaction, so all changes of the round up to it are either committed or written by it
+	// and the client pushes later only edits made after that sequence
+	@Transactional
+	public Map<Long, Long> syncOnlineScoreCardChanges(List<OnlineScoreCard> onlineScoreCards) {
+
+		sync(onlineScoreCards);
+
+		var sequences = new HashMap<Long, Long>();
+		var orIds = onlineScoreCards.stream().map(OnlineScoreCard::getOrId).distinct().toArray();
+		if (orIds.length > 0) {
+			jdbcTemplate.query(con -> {
+				var ps = con.prepareStatement(CHANGE_SEQUENCES);
+				ps.setArray(1, con.createArrayOf("bigint", orIds));
+				return ps;
+			}, rs -> {
+				sequences.put(rs.getLong(1), rs.getLong(2));
+			});
+		}
+		return sequences;
+	}
+
+	private List<OnlineScoreCard> sync(List<OnlineScoreCard> onlineScoreCards) {
+
+		// synchronization compares with saved score cards, the flush is committed in its own transaction
+		// before this one locks any online round
+		onlineScoreCardBuffer.flush();
+		entityManager.flush();
+
+		var savedHoles = findSavedHoles(onlineScoreCards);
+
+		// the last score card of the hole is written, one statement cannot upsert the same row twice
+		var upserts = new LinkedHashMap<String, OnlineScoreCard>();
+		onlineScoreCards.forEach(onlineScoreCard -> {
+			var key = onlineScoreCard.getOrId() + "|" + onlineScoreCard.getHole();
+			if (onlineScoreCard.isUpdate() || savedHoles.add(key)) {
+				log.info("Synchronization required for player id " + onlineScoreCard.getPlayer().getId() + " : hole " + onlineScoreCard.getHole());
+				upserts.put(key, onlineScoreCard);
+				onlineScoreCard.setSyncRequired(true);
+			} else {
+				log.debug("Synchronization not required");
+				onlineScoreCard.setSyncRequired(false);
+			}
+		});
+
+		if (!upserts.isEmpty()) {
+			// this transaction locks only online rounds of the request, by the change sequence trigger
+			// in the order of their ids, so concurrent synchronizations wait for each other instead of deadlocking
+			jdbcTemplate.batchUpdate(UPSERT, upserts.values().stream()
+					.sorted(Comparator.comparingLong(OnlineScoreCard::getOrId).thenComparing(OnlineScoreCard::getHole))
+					.map(sc -> new Object[] {sc.getOrId(), sc.getPlayer().getId(), sc.getHole(), sc.getStroke(),
+							sc.getPutt(), sc.getPenalty(), sc.getTime()})
+					.toList());
+			// score cards read before are stale now
+			entityManager.clear();
+		}
+
+		onlineScoreCards.stream().filter(OnlineScoreCard::isSyncRequired).forEach(onlineLeaderboardService::update);
 
 		return onlineScoreCards;
 	}
 
+	// online round id and hole of score cards already saved for rounds of the synchronized ones
+	private HashSet<String> findSavedHoles(List<OnlineScoreCard> onlineScoreCards) {
+
+		var savedHoles = new HashSet<String>();
+		var orIds = onlineScoreCards.stream().map(OnlineScoreCard::getOrId).distinct().toArray();
+		if (orIds.length > 0) {
+			jdbcTemplate.query(con -> {
+				var ps = con.prepareStatement(SAVED_HOLES);
+				ps.setArray(1, con.createArrayOf("bigint", orIds));
+				return ps;
+			}, rs -> {
+				savedHoles.add(rs.getLong(1) + "|" + rs.getInt(2));
+			});
+		}
+		return savedHoles;
+	}
+
+	// score card is written to database later, repeated updates of the same hole replace the pending one
+	public void bufferOnlineScoreCard(OnlineScoreCard onlineScoreCard) {
+
+		log.debug("Buffering of the score card executed: " + onlineScoreCard);
+		onlineScoreCardBuffer.add(onlineScoreCard);
+		onlineLeaderboardService.update(onlineScoreCard);
+	}
+
 	@Transactional
 	public OnlineScoreCard saveOnlineScoreCard(OnlineScoreCard onlineScoreCard) {
 
@@ -84,32 +237,6 @@ public class OnlineRoundService {
 		return onlineScoreCardRepository.save(onlineScoreCard);
 	}
 
-	private void syncOnlineScoreCard(OnlineScoreCard onlineScoreCard) {
-
-		// skip updates - just in case
-		if (onlineScoreCard.isUpdate()) {
-			self.saveOnlineScoreCard(onlineScoreCard);
-			onlineScoreCard.setSyncRequired(true);
-			return;
-		}
-
-		var onlineRound = new OnlineRound();
-		onlineRound.setId(onlineScoreCard.getOrId());
-		onlineScoreCard.setOnlineRound(onlineRound);
-
-		var updatedScoreCard = onlineScoreCardRepository
-				.findByOnlineRoundAndHole(onlineScoreCard.getOnlineRound(), onlineScoreCard.getHole());
-
-		if (updatedScoreCard.isEmpty()) {
-			log.info("Synchronization required for player id " + onlineScoreCard.getPlayer().getId() + " : hole " + onlineScoreCard.getHole());
-			onlineScoreCardRepository.save(onlineScoreCard);
-			onlineScoreCard.setSyncRequired(true);
-		} else {
-			onlineScoreCard.setSyncRequired(false);
-			log.debug("Synchronization not required");
-		}
-	}
-
 	@Transactional(readOnly = true)
 	public List<OnlineRound> getOnlineRounds() {
 
@@ -123,18 +250,40 @@ public class OnlineRoundService {
 		var onlineRound = new OnlineRound();
 		onlineRound.setId(onlineRoundId);
 
-		return onlineScoreCardRepository.getByOnlineRound(onlineRound);
+		return onlineScoreCardBuffer.merge(onlineRoundId, onlineScoreCardRepository.getByOnlineRound(onlineRound));
+
+	}
+
+	// score cards saved after the given change sequence followed by pending ones of the round, nothing is written
+	// pending score cards have no sequence yet and replace the saved ones of the same hole
+	// they are read before saved ones, so the score card flushed in between is returned at least once
+	@Transactional(readOnly = true)
+	public List<OnlineScoreCard> getOnlineScoreCardChanges(Long onlineRoundId, Long sequence) {
+
+		var pending = onlineScoreCardBuffer.getPending(onlineRoundId);
+
+		var onlineRound = new OnlineRound();
+		onlineRound.setId(onlineRoundId);
 
+		var pendingHoles = pending.stream().map(OnlineScoreCard::getHole).collect(Collectors.toSet());
+		var changes = new ArrayList<>(onlineScoreCardRepository
+				.findByOnlineRoundAndSequenceGreaterThanOrderBySequence(onlineRound, sequence).stream()
+				.filter(onlineScoreCard -> !pendingHoles.contains(onlineScoreCard.getHole()))
+				.toList());
+		changes.addAll(pending);
+		return changes;
 	}
 
 	@Transactional
 	public void deleteForOwner(Long ownerId) {
 
 		onlineRoundRepository.deleteByOwnerAndFinalized(ownerId, false);
+		onlineLeaderboardService.invalidate();
+		onlineScoreCardSnapshots.invalidate();
 
 	}
 
-	private void buildRound(OnlineRound onlineRound) {
+	private Round buildRound(OnlineRound onlineRound) {
 
 		// create Round object and fill it in
 		var round = new Round();
@@ -196,25 +345,24 @@ public class OnlineRoundService {
 
 		round.setScoreCard(scoreCards);
 
-		roundService.saveRound(round);
+		return round;
 	}
 
 	@Transactional
 	public void finalizeForOwner(Long ownerId) {
 
+		// pending score cards must be saved before they are read with online rounds
+		onlineScoreCardBuffer.flush();
+
 		// get the online rounds from db
 		var onlineRounds = onlineRoundRepository.findByOwnerAndFinalized(ownerId, false);
 
 		// for now, it is assumed that children are retrieved
+		// rounds of the flight are saved together
+		roundService.saveRounds(onlineRounds.stream().map(this::buildRound).toList());
 
-		onlineRounds.forEach(onlineRound -> {
-
-			buildRound(onlineRound);
-
-			onlineRound.setFinalized(true);
-			onlineRoundRepository.save(onlineRound);
-
-		});
+		onlineRounds.forEach(onlineRound -> onlineRound.setFinalized(true));
+		onlineRoundRepository.saveAll(onlineRounds);
 	}
 
 	@Transactional(readOnly = true)
@@ -224,7 +372,7 @@ public class OnlineRoundService {
 		course.setId(courseId);
 		var onlineRounds = onlineRoundRepository.findByCourse(course);
 
-		onlineRounds.forEach(or -> or.setScoreCardAPI(or.getScoreCard()));
+		onlineRounds.forEach(or -> or.setScoreCardAPI(onlineScoreCardBuffer.merge(or.getId(), or.getScoreCard())));
 
 		return onlineRounds;
 	}
@@ -234,7 +382,7 @@ public class OnlineRoundService {
 
 		var onlineRounds = onlineRoundRepository.findByOwner(ownerId);
 
-		onlineRounds.forEach(or -> or.setScoreCardAPI(or.getScoreCard()));
+		onlineRounds.forEach(or -> or.setScoreCardAPI(onlineScoreCardBuffer.merge(or.getId(), or.getScoreCard())));
 
 		return onlineRounds;
 	}
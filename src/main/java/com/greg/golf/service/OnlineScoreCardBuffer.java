@@ -0,0 +1,235 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.entity.OnlineScoreCard;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// write-behind buffer of online score cards received by websocket
+// the last update of the hole replaces the previous one and pending score cards are written in jdbc batches
+// periodically, when the buffer is full, before online rounds are synchronized or finalized and on shutdown
+// every flush is committed in its own transaction before the caller continues, so flushed score cards never
+// depend on the outcome of the caller and online rounds are not kept locked until the caller commits
+// every score card is journaled before it is buffered, journal is released once the flush is committed
+// score cards put back after the failed flush are journaled again, so they survive the restart as well
+// if the batch violates a constraint it is written row by row and rejected rows are logged and dropped,
+// so one invalid score card never blocks the others
+@Slf4j
+@Service("onlineScoreCardBuffer")
+@RequiredArgsConstructor
+public class OnlineScoreCardBuffer {
+
+    // score cards of online rounds deleted in the meantime are skipped
+    private static final String UPSERT = "INSERT INTO online_score_card (online_round_id, player_id, hole, stroke, putt, " +
+            "penalty, time) SELECT ?, ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM online_round WHERE id = ?) " +
+            "ON CONFLICT (online_round_id, hole) DO UPDATE SET stroke = EXCLUDED.stroke, putt = EXCLUDED.putt, " +
+            "penalty = EXCLUDED.penalty";
+
+    private final OnlineRoundServiceConfig onlineRoundServiceConfig;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final OnlineScoreCardJournal onlineScoreCardJournal;
+
+    // journal rotation and draining of pending score cards must see the same score cards
+    private final Object journalLock = new Object();
+
+    // pending score cards by online round id and hole, holes are modified only within compute of the round
+    private final Map<Long, Map<Integer, OnlineScoreCard>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // score cards not saved before the previous shutdown are buffered again
+    @PostConstruct
+    public void replay() {
+
+        var onlineScoreCards = onlineScoreCardJournal.replay();
+        if (!onlineScoreCards.isEmpty()) {
+            log.info("Replaying " + onlineScoreCards.size() + " journaled online score cards");
+            onlineScoreCards.stream().filter(this::isValid).forEach(this::put);
+        }
+    }
+
+    public void add(OnlineScoreCard onlineScoreCard) {
+
+        if (!isValid(onlineScoreCard)) {
+            return;
+        }
+
+        synchronized (journalLock) {
+            onlineScoreCardJournal.append(onlineScoreCard);
+            put(onlineScoreCard);
+        }
+
+        // memory is bounded by writing on the caller thread when the buffer is full
+        if (size.get() >= onlineRoundServiceConfig.getScoreCardBufferSize()) {
+            log.warn("Online score card buffer full, flushing " + size.get() + " score cards");
+            flush();
+        }
+    }
+
+    // columns of these values are not null
+    private boolean isValid(OnlineScoreCard onlineScoreCard) {
+
+        if (onlineScoreCard.getHole() == null || onlineScoreCard.getStroke() == null
+                || onlineScoreCard.getTime() == null || onlineScoreCard.getPlayer() == null
+                || onlineScoreCard.getPlayer().getId() == null) {
+            log.error("Dropping invalid online score card " + onlineScoreCard);
+            return false;
+        }
+        return true;
+    }
+
+    private void put(OnlineScoreCard onlineScoreCard) {
+
+        pending.compute(onlineScoreCard.getOrId(), (orId, holes) -> {
+            var roundHoles = holes == null ? new HashMap<Integer, OnlineScoreCard>() : holes;
+            if (roundHoles.put(onlineScoreCard.getHole(), onlineScoreCard) == null) {
+                size.incrementAndGet();
+            }
+            return roundHoles;
+        });
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // score cards read from database with pending ones applied, ordered by hole
+    public List<OnlineScoreCard> merge(Long onlineRoundId, List<OnlineScoreCard> onlineScoreCards) {
+
+        var merged = new TreeMap<Integer, OnlineScoreCard>();
+        onlineScoreCards.forEach(onlineScoreCard -> merged.put(onlineScoreCard.getHole(), onlineScoreCard));
+
+        pending.computeIfPresent(onlineRoundId, (orId, holes) -> {
+            merged.putAll(holes);
+            return holes;
+        });
+
+        return new ArrayList<>(merged.values());
+    }
+
+    // pending score cards of the online round, ordered by hole, these have no change sequence yet
+    public List<OnlineScoreCard> getPending(Long onlineRoundId) {
+        return merge(onlineRoundId, List.of());
+    }
+
+    // runs the reader of saved score cards while no flush is in progress, so every score card it reads
+    // is either committed before the query or still pending when pending ones are read after it
+    public synchronized <T> T withoutFlush(Supplier<T> reader) {
+        return reader.get();
+    }
+
+    @Scheduled(fixedDelayString = "${online.scoreCardFlushInterval}")
+    public void scheduledFlush() {
+
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            // score cards stay in the buffer and are written with the next flush
+            log.error("Unable to flush online score cards: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        log.info("Flushing " + size.get() + " online score cards on shutdown");
+        scheduledFlush();
+    }
+
+    // writes and commits pending score cards, if the flush fails they are put back unless the hole has been
+    // updated in the meantime, flushes never run concurrently so no newer score card can be committed meanwhile
+    // the caller must not hold locks of online rounds, the flush would wait for its own caller
+    public synchronized void flush() {
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long journalMark;
+        var batch = new ArrayList<OnlineScoreCard>(size.get());
+        synchronized (journalLock) {
+            journalMark = onlineScoreCardJournal.rotate();
+            for (var orId : pending.keySet()) {
+                var holes = pending.remove(orId);
+                if (holes != null) {
+                    size.addAndGet(-holes.size());
+                    batch.addAll(holes.values());
+                }
+            }
+        }
+        // online rounds are locked by the change sequence trigger in the order of their ids, as by the synchronization
+        batch.sort(Comparator.comparingLong(OnlineScoreCard::getOrId).thenComparing(OnlineScoreCard::getHole));
+
+        // independent of the transaction of the caller, committed before the caller continues
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch of online score cards rejected, writing row by row: " + e.getMessage());
+                writeEach(transactionTemplate, batch);
+            }
+        } catch (RuntimeException e) {
+            restore(journalMark, batch);
+            throw e;
+        }
+
+        onlineScoreCardJournal.release(journalMark);
+
+        log.debug("Flushed " + batch.size() + " online score cards");
+    }
+
+    // the batch holds one score card per hole so each row is upserted once
+    private void write(List<OnlineScoreCard> batch) {
+
+        jdbcTemplate.batchUpdate(UPSERT, batch.stream()
+                .map(sc -> new Object[] {sc.getOrId(), sc.getPlayer().getId(), sc.getHole(), sc.getStroke(),
+                        sc.getPutt(), sc.getPenalty(), sc.getTime(), sc.getOrId()})
+                .toList());
+    }
+
+    private void writeEach(TransactionTemplate transactionTemplate, List<OnlineScoreCard> batch) {
+
+        for (var onlineScoreCard : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(List.of(onlineScoreCard)));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Dropping online score card " + onlineScoreCard + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // segments of the failed flush may be deleted by the release of the later one
+    private void restore(long journalMark, List<OnlineScoreCard> batch) {
+
+        synchronized (journalLock) {
+            var restored = new ArrayList<OnlineScoreCard>();
+            batch.forEach(onlineScoreCard -> pending.compute(onlineScoreCard.getOrId(), (orId, holes) -> {
+                var roundHoles = holes == null ? new HashMap<Integer, OnlineScoreCard>() : holes;
+                if (roundHoles.putIfAbsent(onlineScoreCard.getHole(), onlineScoreCard) == null) {
+                    size.incrementAndGet();
+                    restored.add(onlineScoreCard);
+                }
+                return roundHoles;
+            }));
+            restored.forEach(onlineScoreCardJournal::append);
+            onlineScoreCardJournal.cancel(journalMark);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.entity.Player;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+// append-only journal of buffered online score cards, written to memory-mapped segment files
+// the score card is journaled before it is acknowledged, so it survives the restart of the application
+// segments are closed when pending score cards are flushed and deleted once these are committed to database
+// segments of a flush still not committed are never deleted by the release of a later one
+// each record is length, crc32 checksum and score card, records after the first invalid one are ignored on replay
+@Slf4j
+@Service("onlineScoreCardJournal")
+public class OnlineScoreCardJournal {
+
+    private static final String PREFIX = "online-score-card-";
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 8;
+    private static final int NULL = Integer.MIN_VALUE;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // guarded by this
+    private final NavigableSet<Long> closed = new TreeSet<>();
+    // marks of flushes not completed yet with their count, flushes may get the same mark
+    private final NavigableMap<Long, Integer> outstanding = new TreeMap<>();
+    private long segment;
+    private MappedByteBuffer current;
+
+    public OnlineScoreCardJournal(OnlineRoundServiceConfig onlineRoundServiceConfig) {
+
+        directory = Path.of(onlineRoundServiceConfig.getJournalDirectory()).toAbsolutePath();
+        segmentSize = onlineRoundServiceConfig.getJournalSegmentSize();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create journal directory " + directory
+                    + ", set online.journalDirectory to a writable directory: " + e.getMessage(), e);
+        }
+        if (!Files.isWritable(directory)) {
+            throw new IllegalStateException("Journal directory " + directory
+                    + " is not writable, set online.journalDirectory to a writable directory");
+        }
+        log.info("Journaling online score cards to " + directory);
+    }
+
+    // score cards left by the previous run, oldest first, their segments are deleted with the next release
+    public synchronized List<OnlineScoreCard> replay() {
+
+        var onlineScoreCards = new ArrayList<OnlineScoreCard>();
+
+        try (var files = Files.list(directory)) {
+            var segments = files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.valueOf(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+
+            for (var s : segments) {
+                read(path(s), onlineScoreCards);
+                closed.add(s);
+                segment = Math.max(segment, s);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return onlineScoreCards;
+    }
+
+    public synchronized void append(OnlineScoreCard onlineScoreCard) {
+
+        var record = encode(onlineScoreCard);
+        if (current == null || current.remaining() < HEADER_SIZE + record.length) {
+            close();
+            open();
+        }
+
+        var crc = new CRC32();
+        crc.update(record);
+        current.putInt(record.length).putInt((int) crc.getValue()).put(record);
+    }
+
+    // closes the current segment, returned mark covers all score cards journaled so far
+    // the flush must complete the mark with release or cancel
+    public synchronized long rotate() {
+
+        close();
+        outstanding.merge(segment, 1, Integer::sum);
+        return segment;
+    }
+
+    // score cards of the mark are committed to database, deletes its segments
+    // segments up to the lower outstanding mark are kept, these belong to the flush not committed yet
+    public synchronized void release(long mark) {
+
+        complete(mark);
+        var lower = outstanding.floorKey(mark);
+        var released = lower == null ? closed.headSet(mark, true) : closed.subSet(lower, false, mark, true);
+        for (var iterator = released.iterator(); iterator.hasNext(); ) {
+            var s = iterator.next();
+            iterator.remove();
+            try {
+                Files.deleteIfExists(path(s));
+            } catch (IOException e) {
+                // segment is replayed once more after restart, score cards are only written again
+                log.error("Unable to delete journal segment: " + e.getMessage());
+            }
+        }
+    }
+
+    // flush of the mark has been rolled back and its score cards journaled again
+    // its segments are deleted with the next release
+    public synchronized void cancel(long mark) {
+        complete(mark);
+    }
+
+    private void complete(long mark) {
+        outstanding.computeIfPresent(mark, (m, count) -> count == 1 ? null : count - 1);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    private void open() {
+
+        segment++;
+        try (var channel = FileChannel.open(path(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // mapping stays valid after the channel is closed
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            segment--;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void close() {
+
+        if (current != null) {
+            current.force();
+            current = null;
+            closed.add(segment);
+        }
+    }
+
+    private Path path(long s) {
+        return directory.resolve(PREFIX + s + SUFFIX);
+    }
+
+    private void read(Path file, List<OnlineScoreCard> onlineScoreCards) throws IOException {
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            var crc = new CRC32();
+            while (buffer.remaining() >= HEADER_SIZE) {
+                var length = buffer.getInt();
+                var checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                var record = new byte[length];
+                buffer.get(record);
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Invalid record in journal segment " + file.getFileName());
+                    break;
+                }
+                onlineScoreCards.add(decode(record));
+            }
+        }
+    }
+
+    static byte[] encode(OnlineScoreCard onlineScoreCard) {
+
+        var time = onlineScoreCard.getTime() == null ? null : onlineScoreCard.getTime().getBytes(StandardCharsets.UTF_8);
+        var buffer = ByteBuffer.allocate(8 + 8 + 4 * 4 + 4 + (time == null ? 0 : time.length));
+        buffer.putLong(onlineScoreCard.getOrId())
+                .putLong(onlineScoreCard.getPlayer().getId())
+                .putInt(orNull(onlineScoreCard.getHole()))
+                .putInt(orNull(onlineScoreCard.getStroke()))
+                .putInt(orNull(onlineScoreCard.getPutt()))
+                .putInt(orNull(onlineScoreCard.getPenalty()))
+                .putInt(time == null ? NULL : time.length);
+        if (time != null) {
+            buffer.put(time);
+        }
+        return buffer.array();
+    }
+
+    static OnlineScoreCard decode(byte[] record) {
+
+        var buffer = ByteBuffer.wrap(record);
+
+        var onlineScoreCard = new OnlineScoreCard();
+        onlineScoreCard.setOrId(buffer.getLong());
+        var player = new Player();
+        player.setId(buffer.getLong());
+        onlineScoreCard.setPlayer(player);
+        onlineScoreCard.setHole(toInteger(buffer.getInt()));
+        onlineScoreCard.setStroke(toInteger(buffer.getInt()));
+        onlineScoreCard.setPutt(toInteger(buffer.getInt()));
+        onlineScoreCard.setPenalty(toInteger(buffer.getInt()));
+        var timeLength = buffer.getInt();
+        if (timeLength != NULL) {
+            var time = new byte[timeLength];
+            buffer.get(time);
+            onlineScoreCard.setTime(new String(time, StandardCharsets.UTF_8));
+        }
+        return onlineScoreCard;
+    }
+
+    private static int orNull(Integer value) {
+        return value == null ? NULL : value;
+    }
+
+    private static Integer toInteger(int value) {
+        return value == NULL ? null : value;
+    }
+}
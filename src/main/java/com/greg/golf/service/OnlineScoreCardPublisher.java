@@ -0,0 +1,93 @@
+package com.greg.golf.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.service.helpers.OnlineScoreCardCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+
+// sends online score cards to subscribers of the online round and of the course the round is played on
+// so clients receive only updates of what they watch instead of every update in the system
+// snapshots for spectators subscribing later are updated before sending
+// the score card is serialized once as json and once in compact layout for /topic/binary destinations
+// and the same bytes are sent to all destinations and subscribers
+@Slf4j
+@Service("onlineScoreCardPublisher")
+public class OnlineScoreCardPublisher {
+
+    public static final String ROUND_DESTINATION = "/topic/round/";
+    public static final String COURSE_DESTINATION = "/topic/course/";
+    public static final String BINARY_ROUND_DESTINATION = "/topic/binary/round/";
+    public static final String BINARY_COURSE_DESTINATION = "/topic/binary/course/";
+
+    private final SimpMessagingTemplate template;
+    private final JdbcTemplate jdbcTemplate;
+    private final OnlineScoreCardSnapshots onlineScoreCardSnapshots;
+
+    // course of the online round never changes so entries are never invalidated
+    private final Cache<Long, Long> roundCourses;
+
+    public OnlineScoreCardPublisher(SimpMessagingTemplate template, JdbcTemplate jdbcTemplate,
+                                    OnlineScoreCardSnapshots onlineScoreCardSnapshots,
+                                    OnlineRoundServiceConfig onlineRoundServiceConfig) {
+        this.template = template;
+        this.jdbcTemplate = jdbcTemplate;
+        this.onlineScoreCardSnapshots = onlineScoreCardSnapshots;
+
+        roundCourses = CacheBuilder.newBuilder()
+                .maximumSize(onlineRoundServiceConfig.getRoundCacheSize())
+                .build();
+    }
+
+    public void publish(OnlineScoreCardDto onlineScoreCard) {
+
+        var json = template.getMessageConverter().toMessage(onlineScoreCard, null);
+        Message<byte[]> binary = MessageBuilder.withPayload(OnlineScoreCardCodec.encode(onlineScoreCard))
+                .setHeader(MessageHeaders.CONTENT_TYPE, OnlineScoreCardCodec.MIME_TYPE)
+                .build();
+
+        template.send(ROUND_DESTINATION + onlineScoreCard.getOrId(), json);
+        template.send(BINARY_ROUND_DESTINATION + onlineScoreCard.getOrId(), binary);
+
+        var courseId = getCourseId(onlineScoreCard.getOrId());
+        onlineScoreCardSnapshots.update(onlineScoreCard, courseId);
+        if (courseId != null) {
+            template.send(COURSE_DESTINATION + courseId, json);
+            template.send(BINARY_COURSE_DESTINATION + courseId, binary);
+        }
+    }
+
+    public boolean roundExists(Long onlineRoundId) {
+        return getCourseId(onlineRoundId) != null;
+    }
+
+    // null if the online round does not exist or cannot be read
+    Long getCourseId(Long onlineRoundId) {
+
+        var courseId = roundCourses.getIfPresent(onlineRoundId);
+        if (courseId != null) {
+            return courseId;
+        }
+
+        try {
+            var courseIds = jdbcTemplate.queryForList("SELECT course_id FROM online_round WHERE id = ?",
+                    Long.class, onlineRoundId);
+            if (courseIds.isEmpty() || courseIds.get(0) == null) {
+                return null;
+            }
+            roundCourses.put(onlineRoundId, courseIds.get(0));
+            return courseIds.get(0);
+        } catch (DataAccessException e) {
+            log.error("Unable to find course of online round " + onlineRoundId + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.greg.golf.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.service.helpers.OnlineScoreCardCodec;
+import com.greg.golf.controller.dto.PlayerDto;
+import com.greg.golf.entity.OnlineScoreCard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// current score cards of online rounds and courses, sent to the spectator as the first frame after subscription
+// the round or course is read from database once, then kept up to date with every published score card
+// so spectators joining later are served from memory
+// only existing rounds and courses with online rounds are kept, both caches are bounded
+@Slf4j
+@Service("onlineScoreCardSnapshots")
+public class OnlineScoreCardSnapshots {
+
+    private static final String CARDS_QUERY = "SELECT s.online_round_id, s.hole, s.stroke, s.putt, s.penalty, " +
+            "s.player_id, s.time, s.change_sequence, r.id FROM online_round r " +
+            "LEFT JOIN online_score_card s ON s.online_round_id = r.id WHERE ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OnlineScoreCardBuffer onlineScoreCardBuffer;
+    private final OnlineLeaderboardService onlineLeaderboardService;
+
+    // score cards by online round id and hole
+    private final Cache<Long, Map<Integer, OnlineScoreCardDto>> rounds;
+    // score cards of online rounds of loaded courses, holes of the round are shared with rounds if it is loaded
+    private final Cache<Long, Map<Long, Map<Integer, OnlineScoreCardDto>>> courses;
+
+    public OnlineScoreCardSnapshots(JdbcTemplate jdbcTemplate, OnlineScoreCardBuffer onlineScoreCardBuffer,
+                                    OnlineLeaderboardService onlineLeaderboardService,
+                                    OnlineRoundServiceConfig onlineRoundServiceConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.onlineScoreCardBuffer = onlineScoreCardBuffer;
+        this.onlineLeaderboardService = onlineLeaderboardService;
+
+        rounds = CacheBuilder.newBuilder()
+                .maximumSize(onlineRoundServiceConfig.getRoundCacheSize())
+                .build();
+        courses = CacheBuilder.newBuilder()
+                .maximumSize(onlineRoundServiceConfig.getCourseCacheSize())
+                .build();
+    }
+
+    // snapshot for the subscribed destination, null if there is none for that destination
+    // encoded score cards for binary destinations
+    public Object getSnapshot(String destination) {
+
+        try {
+            if (destination.startsWith(OnlineScoreCardPublisher.ROUND_DESTINATION)) {
+                return getRound(Long.valueOf(destination.substring(OnlineScoreCardPublisher.ROUND_DESTINATION.length())));
+            }
+            if (destination.startsWith(OnlineScoreCardPublisher.COURSE_DESTINATION)) {
+                return getCourse(Long.valueOf(destination.substring(OnlineScoreCardPublisher.COURSE_DESTINATION.length())));
+            }
+            // binary subscribers receive the snapshot in the same compact layout as the score cards
+            if (destination.startsWith(OnlineScoreCardPublisher.BINARY_ROUND_DESTINATION)) {
+                return OnlineScoreCardCodec.encode(getRound(Long.valueOf(
+                        destination.substring(OnlineScoreCardPublisher.BINARY_ROUND_DESTINATION.length()))));
+            }
+            if (destination.startsWith(OnlineScoreCardPublisher.BINARY_COURSE_DESTINATION)) {
+                return OnlineScoreCardCodec.encode(getCourse(Long.valueOf(
+                        destination.substring(OnlineScoreCardPublisher.BINARY_COURSE_DESTINATION.length()))));
+            }
+            if (destination.startsWith(OnlineLeaderboardService.DESTINATION)) {
+                return onlineLeaderboardService.getLeaderboard(
+                        Long.valueOf(destination.substring(OnlineLeaderboardService.DESTINATION.length())));
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Invalid destination " + destination);
+        }
+        return null;
+    }
+
+    // empty if the online round does not exist, it is not kept then
+    public List<OnlineScoreCardDto> getRound(Long onlineRoundId) {
+
+        var holes = rounds.asMap().computeIfAbsent(onlineRoundId, id -> load("r.id = ?", id).get(id));
+        return holes == null ? new ArrayList<>() : new ArrayList<>(holes.values());
+    }
+
+    // empty if the course has no online rounds, it is not kept then
+    public List<OnlineScoreCardDto> getCourse(Long courseId) {
+
+        var courseRounds = courses.asMap().computeIfAbsent(courseId, id -> {
+            var loaded = load("r.course_id = ?", id);
+            if (loaded.isEmpty()) {
+                return null;
+            }
+            var shared = new ConcurrentHashMap<Long, Map<Integer, OnlineScoreCardDto>>();
+            loaded.forEach((orId, holes) -> {
+                var current = rounds.asMap().putIfAbsent(orId, holes);
+                shared.put(orId, current == null ? holes : current);
+            });
+            log.debug("Score cards of course " + id + " loaded");
+            return shared;
+        });
+
+        var snapshot = new ArrayList<OnlineScoreCardDto>();
+        if (courseRounds != null) {
+            courseRounds.values().forEach(holes -> snapshot.addAll(holes.values()));
+        }
+        return snapshot;
+    }
+
+    // applies published score card to loaded snapshots, course is null if not known
+    public void update(OnlineScoreCardDto onlineScoreCard, Long courseId) {
+
+        var orId = onlineScoreCard.getOrId();
+        var holes = rounds.getIfPresent(orId);
+        if (courseId != null) {
+            var courseRounds = courses.getIfPresent(courseId);
+            if (courseRounds != null) {
+                // online round started after the course has been loaded
+                courseRounds.computeIfAbsent(orId, k -> holes != null ? holes : new ConcurrentSkipListMap<>())
+                        .put(onlineScoreCard.getHole(), onlineScoreCard);
+            }
+        }
+        if (holes != null) {
+            holes.put(onlineScoreCard.getHole(), onlineScoreCard);
+        }
+    }
+
+    // online rounds have been deleted, snapshots are read again when needed
+    public void invalidate() {
+
+        Runnable clear = () -> {
+            rounds.invalidateAll();
+            courses.invalidateAll();
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear.run();
+                }
+            });
+        } else {
+            clear.run();
+        }
+    }
+
+    // saved and still buffered score cards of online rounds, rounds without score cards are included too
+    // no score card is missed by the flush running between reading saved and pending ones
+    private Map<Long, Map<Integer, OnlineScoreCardDto>> load(String condition, Long id) {
+
+        return onlineScoreCardBuffer.withoutFlush(() -> {
+            var loaded = new HashMap<Long, Map<Integer, OnlineScoreCardDto>>();
+
+            jdbcTemplate.query(CARDS_QUERY + condition, rs -> {
+                var holes = loaded.computeIfAbsent(rs.getLong(9), k -> new ConcurrentSkipListMap<>());
+                if (rs.getObject(1) != null) {
+                    var onlineScoreCard = toDto(rs);
+                    holes.put(onlineScoreCard.getHole(), onlineScoreCard);
+                }
+            }, id);
+
+            loaded.forEach((orId, holes) -> onlineScoreCardBuffer.getPending(orId)
+                    .forEach(onlineScoreCard -> holes.put(onlineScoreCard.getHole(), toDto(onlineScoreCard))));
+
+            return loaded;
+        });
+    }
+
+    private static OnlineScoreCardDto toDto(ResultSet rs) throws SQLException {
+
+        var player = new PlayerDto();
+        player.setId(rs.getLong(6));
+
+        var onlineScoreCard = new OnlineScoreCardDto();
+        onlineScoreCard.setOrId(rs.getLong(1));
+        onlineScoreCard.setHole(rs.getInt(2));
+        onlineScoreCard.setStroke(rs.getInt(3));
+        onlineScoreCard.setPutt((Integer) rs.getObject(4));
+        onlineScoreCard.setPenalty((Integer) rs.getObject(5));
+        onlineScoreCard.setPlayer(player);
+        onlineScoreCard.setTime(rs.getString(7));
+        onlineScoreCard.setSequence(rs.getLong(8));
+        return onlineScoreCard;
+    }
+
+    private static OnlineScoreCardDto toDto(OnlineScoreCard buffered) {
+
+        var player = new PlayerDto();
+        player.setId(buffered.getPlayer().getId());
+
+        var onlineScoreCard = new OnlineScoreCardDto();
+        onlineScoreCard.setOrId(buffered.getOrId());
+        onlineScoreCard.setHole(buffered.getHole());
+        onlineScoreCard.setStroke(buffered.getStroke());
+        onlineScoreCard.setPutt(buffered.getPutt());
+        onlineScoreCard.setPenalty(buffered.getPenalty());
+        onlineScoreCard.setPlayer(player);
+        onlineScoreCard.setTime(buffered.getTime());
+        return onlineScoreCard;
+    }
+}
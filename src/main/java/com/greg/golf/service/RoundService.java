@@ -1,10 +1,14 @@
 package com.greg.golf.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import com.greg.golf.entity.helpers.Common;
@@ -12,6 +16,7 @@ import com.greg.golf.repository.PlayerRepository;
 import com.greg.golf.service.helpers.RoleVerification;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,26 +37,46 @@ import lombok.RequiredArgsConstructor;
 @Slf4j
 @Service("roundService")
 public class RoundService {
+
+	private static final String INSERT_SCORE_CARD = "INSERT INTO score_card (round_id, player_id, hole, stroke, pats, " +
+			"penalty) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String UPDATE_PLAYER_ROUND = "UPDATE player_round SET whs = ?, sr = ?, cr = ?, tee_id = ?, " +
+			"tee_type = ? WHERE player_id = ? AND round_id = ?";
 	
 	private final RoundServiceConfig roundServiceConfig;
 	private final RoundRepository roundRepository;
 	private final PlayerRoundRepository playerRoundRepository;
 	private final PlayerRepository playerRepository;
+	private final CourseRegistry courseRegistry;
+	private final JdbcTemplate jdbcTemplate;
 	
 	public Optional<Round> getWithPlayers (Long id) {
 		return roundRepository.findById(id);
 	}
 
+	@Transactional(readOnly = true)
+	public List<Round> getWithScoreCards(Collection<Long> ids) {
+		return roundRepository.findByIdIn(ids);
+	}
+
 	@Transactional(readOnly = true)
 	public List<Round> findByDates(Date startDate, Date endDate) {
 		return roundRepository.findByRoundDateBetween(startDate, endDate);
 	}
 
+	@Transactional(readOnly = true)
+	public List<Round> findTournamentCandidates(Long tournamentId, Date startDate, Date endDate) {
+		return roundRepository.findTournamentCandidates(tournamentId, startDate, endDate);
+	}
+
 	@Transactional 
 	public Round saveRound(Round round) {
 
 		var player = round.getPlayer().stream().findFirst().orElseThrow();
 
+		// ratings of the selected tee are taken from the registry, not from the request
+		var tee = courseRegistry.getTee(round.getCourse().getTees().get(0).getId());
+
 		// set player association to ScoreCard
 		round.getScoreCard().forEach(card -> card.setPlayer(player));
 
@@ -83,10 +108,10 @@ public class RoundService {
 			roundRepository.save(existingRound);
 			round.setId(existingRound.getId());
 			playerRoundRepository.updatePlayerRoundInfo(player.getWhs(), 
-														round.getCourse().getTees().get(0).getSr(),
-														round.getCourse().getTees().get(0).getCr(),
-														round.getCourse().getTees().get(0).getId(),
-														round.getCourse().getTees().get(0).getTeeType(),
+														tee.sr(),
+														tee.cr(),
+														tee.id(),
+														tee.teeType(),
 														player.getId(), 
 														round.getId());
 		}, () -> {
@@ -94,16 +119,79 @@ public class RoundService {
 			round.getScoreCard().forEach(card -> card.setRound(round));
 			roundRepository.save(round);
 			playerRoundRepository.updatePlayerRoundInfo(player.getWhs(),
-													round.getCourse().getTees().get(0).getSr(),
-													round.getCourse().getTees().get(0).getCr(),
-								  					round.getCourse().getTees().get(0).getId(),
-								  					round.getCourse().getTees().get(0).getTeeType(),
+													tee.sr(),
+													tee.cr(),
+								  					tee.id(),
+								  					tee.teeType(),
 								  					player.getId(), 
 								  					round.getId());
 		});
 
 		return round;
 	}
+
+	// bulk version of saveRound for rounds of one player each, rounds played on the same course and date
+	// are merged into one round and score cards and player round info of all rounds are written in two batches
+	@Transactional
+	public List<Round> saveRounds(List<Round> rounds) {
+
+		var flights = new LinkedHashMap<String, List<Round>>();
+		rounds.forEach(round -> flights.computeIfAbsent(round.getCourse().getId() + "|" + round.getRoundDate().getTime(),
+				key -> new ArrayList<>()).add(round));
+
+		var scoreCards = new ArrayList<Object[]>();
+		var playerRounds = new ArrayList<Object[]>();
+
+		flights.values().forEach(flight -> {
+
+			var first = flight.get(0);
+			var matchingRound = roundRepository.findRoundByCourseAndRoundDate(first.getCourse(), first.getRoundDate());
+			var players = matchingRound.map(Round::getPlayer).orElseGet(TreeSet::new);
+
+			// check if number of players is ok
+			if (players.size() + flight.size() > 4) {
+				log.warn("Number of players for round exceeded");
+				throw new TooManyPlayersException();
+			}
+
+			var flightRound = matchingRound.orElseGet(() -> {
+				var round = new Round();
+				round.setCourse(first.getCourse());
+				round.setRoundDate(first.getRoundDate());
+				round.setMatchPlay(first.getMatchPlay());
+				round.setMpFormat(first.getMpFormat());
+				round.setPlayer(players);
+				return round;
+			});
+
+			// players are added to the round here, score cards are inserted later in batch
+			flight.forEach(round -> {
+				var player = round.getPlayer().stream().findFirst().orElseThrow();
+				if (!players.add(player)) {
+					log.debug("Attempt to save the same round twice");
+					throw new PlayerAlreadyHasThatRoundException();
+				}
+			});
+			roundRepository.save(flightRound);
+
+			flight.forEach(round -> {
+				var player = round.getPlayer().stream().findFirst().orElseThrow();
+				var tee = courseRegistry.getTee(round.getCourse().getTees().get(0).getId());
+				round.setId(flightRound.getId());
+				round.getScoreCard().forEach(card -> scoreCards.add(new Object[] {flightRound.getId(), player.getId(),
+						card.getHole(), card.getStroke(), card.getPats(), card.getPenalty()}));
+				playerRounds.add(new Object[] {player.getWhs(), tee.sr(), tee.cr(), tee.id(), tee.teeType(),
+						player.getId(), flightRound.getId()});
+			});
+		});
+
+		// player round rows are created by flush of the rounds
+		roundRepository.flush();
+		jdbcTemplate.batchUpdate(INSERT_SCORE_CARD, scoreCards);
+		jdbcTemplate.batchUpdate(UPDATE_PLAYER_ROUND, playerRounds);
+
+		return rounds;
+	}
 	
 	@Transactional(readOnly = true)
 	public List<Round> listByPlayerPageable(Player player, Integer pageNo) {
@@ -199,6 +287,13 @@ public class RoundService {
 
 	}
 	
+	@Transactional(readOnly = true)
+	public List<PlayerRound> getForRoundsDetails(Collection<Long> roundIds) {
+
+		return playerRoundRepository.findByRoundIdIn(roundIds);
+
+	}
+
 	@Transactional
 	public List<PlayerRound> getByRoundId(Long roundId) {
 		return playerRoundRepository.findByRoundIdOrderByPlayerId(roundId).orElseThrow();
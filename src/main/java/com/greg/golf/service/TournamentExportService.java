@@ -0,0 +1,171 @@
+package com.greg.golf.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.repository.TournamentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+// exports tournament results together with tournament rounds, one line per round
+// rows are read with forward only cursor and written directly to the output, nothing is collected in memory
+@Slf4j
+@Service("tournamentExportService")
+@RequiredArgsConstructor
+public class TournamentExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String[] COLUMNS = {"result_id", "player_id", "nick", "played_rounds", "stroke_rounds",
+            "stb_net", "stb_gross", "strokes_brutto", "strokes_netto", "round_id", "course_name", "round_stb_net",
+            "round_stb_gross", "round_strokes_brutto", "round_strokes_netto", "round_scr_diff", "round_strokes"};
+
+    private static final String EXPORT_QUERY = "SELECT res.id, p.id, p.nick, res.played_rounds, res.stroke_rounds, " +
+            "res.stb_net, res.stb_gross, res.strokes_brutto, res.strokes_netto, tr.round_id, tr.course_name, " +
+            "tr.stb_net, tr.stb_gross, tr.strokes_brutto, tr.strokes_netto, tr.scr_diff, tr.strokes " +
+            "FROM tournament_result res JOIN player p ON p.id = res.player_id " +
+            "LEFT JOIN tournament_round tr ON tr.tournament_result_id = res.id " +
+            "WHERE res.tournament_id = ? ORDER BY res.stb_net DESC, res.id, tr.id";
+
+    private final TournamentServiceConfig tournamentServiceConfig;
+    private final TournamentRepository tournamentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    // verifies parameters before the response is committed
+    public void verify(Long tournamentId, String format) {
+
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported export format " + format);
+        }
+
+        if (!tournamentRepository.existsById(tournamentId)) {
+            throw new NoSuchElementException("Tournament " + tournamentId + " not found");
+        }
+    }
+
+    public void export(Long tournamentId, String format, OutputStream outputStream) throws IOException {
+
+        var rowWriter = FORMAT_CSV.equals(format) ? new CsvRowWriter(outputStream) : new NdjsonRowWriter(outputStream);
+
+        // postgres uses cursor for fetch size only within transaction
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        var rows = transactionTemplate.execute(status -> {
+            var counter = new int[1];
+            jdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(tournamentServiceConfig.getExportFetchSize());
+                ps.setLong(1, tournamentId);
+                return ps;
+            }, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                counter[0]++;
+            });
+            return counter[0];
+        });
+
+        rowWriter.flush();
+        log.info("Exported " + rows + " rows of tournament " + tournamentId + " as " + format);
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream outputStream) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+
+            for (var i = 1; i <= COLUMNS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                var value = rs.getObject(i);
+                if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream outputStream) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(outputStream);
+            // lines are separated by new line only
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+
+            generator.writeStartObject();
+            for (var i = 1; i <= COLUMNS.length; i++) {
+                var value = rs.getObject(i);
+                generator.writeFieldName(COLUMNS[i - 1]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.toString());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    static String escape(String value) {
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
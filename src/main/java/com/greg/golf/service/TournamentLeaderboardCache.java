@@ -0,0 +1,102 @@
+package com.greg.golf.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.controller.dto.TournamentResultDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// ordered tournament results ready to be returned to clients, kept per tournament
+// each tournament has version counter increased after commit of every change of its results
+// entry is valid only if it has been loaded with the current version, so the load running
+// in parallel with the change never overwrites the newer results
+@Slf4j
+@Service("tournamentLeaderboardCache")
+public class TournamentLeaderboardCache {
+
+    private static final String METRIC_NAME = "tournament.leaderboard.cache";
+
+    private final Cache<Long, Entry> leaderboards;
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public TournamentLeaderboardCache(TournamentServiceConfig tournamentServiceConfig, MeterRegistry meterRegistry) {
+
+        leaderboards = CacheBuilder.newBuilder()
+                .maximumSize(tournamentServiceConfig.getLeaderboardCacheSize())
+                .expireAfterAccess(tournamentServiceConfig.getLeaderboardCacheExpireMinutes(), TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+
+        hits = meterRegistry.counter(METRIC_NAME + ".gets", "result", "hit");
+        misses = meterRegistry.counter(METRIC_NAME + ".gets", "result", "miss");
+        Gauge.builder(METRIC_NAME + ".size", leaderboards, Cache::size).register(meterRegistry);
+        FunctionCounter.builder(METRIC_NAME + ".evictions", leaderboards, c -> c.stats().evictionCount())
+                .register(meterRegistry);
+    }
+
+    public List<TournamentResultDto> get(Long tournamentId, Supplier<List<TournamentResultDto>> loader) {
+
+        // version must be taken before loading the results
+        long version = getVersion(tournamentId);
+
+        var entry = leaderboards.getIfPresent(tournamentId);
+        if (entry != null && entry.version() == version) {
+            hits.increment();
+            return entry.results();
+        }
+
+        misses.increment();
+        var results = List.copyOf(loader.get());
+        leaderboards.asMap().merge(tournamentId, new Entry(version, results),
+                (current, loaded) -> current.version() >= loaded.version() ? current : loaded);
+
+        return results;
+    }
+
+    // invalidates tournament results, if called within transaction it is done after commit
+    public void invalidate(Long tournamentId) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(tournamentId);
+                }
+            });
+        } else {
+            evict(tournamentId);
+        }
+    }
+
+    private void evict(Long tournamentId) {
+
+        versions.computeIfAbsent(tournamentId, id -> new AtomicLong()).incrementAndGet();
+        leaderboards.invalidate(tournamentId);
+        log.debug("Leaderboard of tournament " + tournamentId + " invalidated");
+    }
+
+    // counter is created only by invalidation, so reads of unknown tournaments do not grow the map
+    private long getVersion(Long tournamentId) {
+        var version = versions.get(tournamentId);
+        return version == null ? 0 : version.get();
+    }
+
+    private record Entry(long version, List<TournamentResultDto> results) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.greg.golf.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.controller.dto.TournamentLeaderboardDeltaDto;
+import com.greg.golf.controller.dto.TournamentResultDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+// publishes changes of tournament leaderboard to /topic/tournament/{tournamentId} after commit
+// only new or changed results, changed ranks and removed results are sent, compared to the last published state
+// deltas are calculated on one thread so they are sent in order
+@Slf4j
+@Service("tournamentLeaderboardPublisher")
+public class TournamentLeaderboardPublisher {
+
+    public static final String DESTINATION = "/topic/tournament/";
+
+    private final TournamentService tournamentService;
+    private final TournamentLeaderboardCache tournamentLeaderboardCache;
+    private final SimpMessagingTemplate template;
+    private final ModelMapper modelMapper;
+
+    private final Cache<Long, Leaderboard> published;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public TournamentLeaderboardPublisher(@Lazy TournamentService tournamentService,
+                                          TournamentLeaderboardCache tournamentLeaderboardCache,
+                                          SimpMessagingTemplate template, ModelMapper modelMapper,
+                                          TournamentServiceConfig tournamentServiceConfig) {
+        this.tournamentService = tournamentService;
+        this.tournamentLeaderboardCache = tournamentLeaderboardCache;
+        this.template = template;
+        this.modelMapper = modelMapper;
+
+        published = CacheBuilder.newBuilder()
+                .maximumSize(tournamentServiceConfig.getLeaderboardCacheSize())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // publishes delta after commit, if called within transaction, or immediately
+    public void publish(Long tournamentId) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> publishDelta(tournamentId));
+                }
+            });
+        } else {
+            executor.execute(() -> publishDelta(tournamentId));
+        }
+    }
+
+    void publishDelta(Long tournamentId) {
+
+        try {
+            var results = tournamentLeaderboardCache.get(tournamentId, () ->
+                    tournamentService.findAllTournamentsResults(tournamentId)
+                            .stream()
+                            .map(tr -> modelMapper.map(tr, TournamentResultDto.class))
+                            .toList());
+
+            var previous = published.getIfPresent(tournamentId);
+            var delta = getDelta(tournamentId, previous, results);
+
+            // sequence is increased only if something is sent
+            if (delta.getChanged().isEmpty() && delta.getRanks().isEmpty() && delta.getRemoved().isEmpty()) {
+                log.debug("Leaderboard of tournament " + tournamentId + " not changed");
+                return;
+            }
+            published.put(tournamentId, new Leaderboard(delta.getSequence(), toRows(results)));
+
+            template.convertAndSend(DESTINATION + tournamentId, delta);
+            log.debug("Leaderboard delta " + delta.getSequence() + " of tournament " + tournamentId + " sent");
+        } catch (Exception e) {
+            // leaderboard can always be reloaded by REST, so failed delta must not break anything
+            published.invalidate(tournamentId);
+            log.error("Unable to publish leaderboard of tournament " + tournamentId + ": " + e.getMessage());
+        }
+    }
+
+    static TournamentLeaderboardDeltaDto getDelta(Long tournamentId, Leaderboard previous, List<TournamentResultDto> results) {
+
+        var previousRows = previous == null ? Map.<Long, Row>of() : previous.rows();
+
+        var changed = new ArrayList<TournamentResultDto>();
+        var ranks = new LinkedHashMap<Long, Integer>();
+
+        for (var rank = 1; rank <= results.size(); rank++) {
+            var result = results.get(rank - 1);
+            var row = new Row(result, rank);
+            var previousRow = previousRows.get(result.getId());
+            if (previousRow == null || !previousRow.sameValues(row)) {
+                changed.add(result);
+            }
+            if (previousRow == null || previousRow.rank() != rank) {
+                ranks.put(result.getId(), rank);
+            }
+        }
+
+        var current = results.stream().map(TournamentResultDto::getId).collect(Collectors.toSet());
+        var removed = previousRows.keySet().stream().filter(id -> !current.contains(id)).toList();
+
+        var delta = new TournamentLeaderboardDeltaDto();
+        delta.setTournamentId(tournamentId);
+        delta.setSequence(previous == null ? 1 : previous.sequence() + 1);
+        delta.setChanged(changed);
+        delta.setRanks(ranks);
+        delta.setRemoved(removed);
+
+        return delta;
+    }
+
+    static Map<Long, Row> toRows(List<TournamentResultDto> results) {
+
+        var rows = new HashMap<Long, Row>();
+        for (var rank = 1; rank <= results.size(); rank++) {
+            var result = results.get(rank - 1);
+            rows.put(result.getId(), new Row(result, rank));
+        }
+        return rows;
+    }
+
+    record Leaderboard(long sequence, Map<Long, Row> rows) {
+    }
+
+    record Row(int rank, Integer playedRounds, Integer strokeRounds, Integer stbNet, Integer stbGross,
+               Integer strokesBrutto, Integer strokesNetto) {
+
+        Row(TournamentResultDto result, int rank) {
+            this(rank, result.getPlayedRounds(), result.getStrokeRounds(), result.getStbNet(), result.getStbGross(),
+                    result.getStrokesBrutto(), result.getStrokesNetto());
+        }
+
+        boolean sameValues(Row row) {
+            return Objects.equals(playedRounds, row.playedRounds)
+                    && Objects.equals(strokeRounds, row.strokeRounds) && Objects.equals(stbNet, row.stbNet)
+                    && Objects.equals(stbGross, row.stbGross) && Objects.equals(strokesBrutto, row.strokesBrutto)
+                    && Objects.equals(strokesNetto, row.strokesNetto);
+        }
+    }
+}
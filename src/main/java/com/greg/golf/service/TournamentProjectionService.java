@@ -0,0 +1,184 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.controller.dto.TournamentProjectionRoundDto;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.Tournament;
+import com.greg.golf.entity.TournamentPlayer;
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.TournamentRound;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.error.TooFewHolesForTournamentException;
+import com.greg.golf.repository.PlayerRepository;
+import com.greg.golf.repository.TournamentPlayerRepository;
+import com.greg.golf.repository.TournamentRepository;
+import com.greg.golf.repository.TournamentResultRepository;
+import com.greg.golf.repository.TournamentRoundRepository;
+import com.greg.golf.service.helpers.BestRounds;
+import com.greg.golf.service.helpers.ScoringKernel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// projects tournament leaderboard for hypothetical rounds of tournament players
+// results are copied and updated in memory with the same rules as adding rounds to tournament, nothing is saved
+@Slf4j
+@Service("tournamentProjectionService")
+@RequiredArgsConstructor
+public class TournamentProjectionService {
+
+    private final TournamentServiceConfig tournamentServiceConfig;
+    private final TournamentRepository tournamentRepository;
+    private final TournamentResultRepository tournamentResultRepository;
+    private final TournamentRoundRepository tournamentRoundRepository;
+    private final TournamentPlayerRepository tournamentPlayerRepository;
+    private final PlayerRepository playerRepository;
+    private final CourseRegistry courseRegistry;
+
+    @Transactional(readOnly = true)
+    public List<TournamentResult> project(Long tournamentId, List<TournamentProjectionRoundDto> projectedRounds) {
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        var tournamentPlayers = tournamentPlayerRepository
+                .findByTournamentId(tournamentId)
+                .stream()
+                .collect(Collectors.toMap(TournamentPlayer::getPlayerId, TournamentPlayer::getWhs));
+
+        // scoring does not depend on results so it can be done in parallel for many rounds
+        var roundStream = projectedRounds.size() >= tournamentServiceConfig.getProjectionParallelThreshold()
+                ? projectedRounds.parallelStream() : projectedRounds.stream();
+        var scoredRounds = roundStream.map(pr -> score(pr, tournamentPlayers)).toList();
+
+        var results = copyResults(tournament);
+
+        // players without result get the new one
+        var missingPlayers = scoredRounds.stream()
+                .map(ScoredRound::playerId)
+                .filter(playerId -> !results.containsKey(playerId))
+                .collect(Collectors.toSet());
+        playerRepository.findAllById(missingPlayers).forEach(player -> {
+            var tournamentResult = TournamentService.buildEmptyTournamentResult(player);
+            tournamentResult.setTournament(tournament);
+            results.put(player.getId(), tournamentResult);
+        });
+
+        // rounds are added in the order of the request
+        scoredRounds.forEach(sr -> {
+            var tournamentResult = results.get(sr.playerId());
+            var tournamentRound = TournamentService.buildTournamentRound(sr.score(), sr.courseName(), tournamentResult, 0);
+            TournamentService.addRoundToResult(tournament, tournamentResult, tournamentRound);
+        });
+
+        log.debug("Projected " + scoredRounds.size() + " rounds for tournament " + tournamentId);
+
+        return sortResults(tournament, results.values());
+    }
+
+    private ScoredRound score(TournamentProjectionRoundDto projectedRound, Map<Long, Float> tournamentPlayers) {
+
+        var whs = tournamentPlayers.get(projectedRound.getPlayerId());
+        if (whs == null) {
+            throw new NoSuchElementException("Player " + projectedRound.getPlayerId() + " is not tournament player");
+        }
+
+        if (projectedRound.getTeeId() == null) {
+            throw new NoSuchElementException("Tee not given for player " + projectedRound.getPlayerId());
+        }
+        if (projectedRound.getStrokes() == null || projectedRound.getStrokes().size() != ScoringKernel.HOLES) {
+            throw new TooFewHolesForTournamentException();
+        }
+
+        var strokes = new int[ScoringKernel.HOLES];
+        for (var i = 0; i < ScoringKernel.HOLES; i++) {
+            var stroke = projectedRound.getStrokes().get(i);
+            if (stroke == null || stroke < 1) {
+                throw new TooFewHolesForTournamentException();
+            }
+            strokes[i] = stroke;
+        }
+
+        var tee = courseRegistry.getTee(projectedRound.getTeeId());
+        var course = courseRegistry.getCourse(tee.courseId());
+
+        var score = new ScoringKernel.Result();
+        ScoringKernel.score(strokes, course.par(), course.si(),
+                ScoringKernel.courseHcp(whs, tee.cr(), tee.sr(), course.coursePar()), tee.cr(), tee.sr(), score);
+
+        return new ScoredRound(projectedRound.getPlayerId(), course.name(), score);
+    }
+
+    // detached copies of tournament results keyed by player id
+    private Map<Long, TournamentResult> copyResults(Tournament tournament) {
+
+        var results = new HashMap<Long, TournamentResult>();
+        var uninitialized = new IdentityHashMap<TournamentResult, TournamentResult>();
+
+        tournamentResultRepository.findByTournamentOrderByPlayedRoundsDescStbNetDesc(tournament).forEach(tr -> {
+            var copy = copyResult(tr);
+            results.put(tr.getPlayer().getId(), copy);
+            if (!TournamentService.isBestRoundsInitialized(tournament, tr)) {
+                uninitialized.put(tr, copy);
+            }
+        });
+
+        // best rounds of results created before best rounds heaps were introduced are initialized on copies only
+        if (!uninitialized.isEmpty()) {
+            var resultRounds = new IdentityHashMap<TournamentResult, List<TournamentRound>>();
+            tournamentRoundRepository.findByTournamentResultInOrderByIdAsc(uninitialized.keySet())
+                    .forEach(tr -> resultRounds.computeIfAbsent(tr.getTournamentResult(), r -> new ArrayList<>()).add(tr));
+            uninitialized.forEach((tr, copy) ->
+                    BestRounds.init(copy, tournament.getBestRounds(), resultRounds.getOrDefault(tr, List.of())));
+        }
+
+        return results;
+    }
+
+    private static TournamentResult copyResult(TournamentResult tournamentResult) {
+
+        var copy = new TournamentResult();
+        copy.setId(tournamentResult.getId());
+        copy.setPlayer(tournamentResult.getPlayer());
+        copy.setTournament(tournamentResult.getTournament());
+        copy.setPlayedRounds(tournamentResult.getPlayedRounds());
+        copy.setStrokeRounds(tournamentResult.getStrokeRounds());
+        copy.setStbNet(tournamentResult.getStbNet());
+        copy.setStbGross(tournamentResult.getStbGross());
+        copy.setStrokesBrutto(tournamentResult.getStrokesBrutto());
+        copy.setStrokesNetto(tournamentResult.getStrokesNetto());
+        copy.setBestStbNet(clone(tournamentResult.getBestStbNet()));
+        copy.setBestStbGross(clone(tournamentResult.getBestStbGross()));
+        copy.setBestStrokesNetto(clone(tournamentResult.getBestStrokesNetto()));
+        copy.setBestStrokesBrutto(clone(tournamentResult.getBestStrokesBrutto()));
+        return copy;
+    }
+
+    private static int[] clone(int[] heap) {
+        return heap == null ? null : heap.clone();
+    }
+
+    // the same order as TournamentService.findAllTournamentsResults
+    static List<TournamentResult> sortResults(Tournament tournament, Collection<TournamentResult> results) {
+
+        Comparator<TournamentResult> byStbNet = Comparator.comparing(TournamentResult::getStbNet).reversed();
+        Comparator<TournamentResult> comparator;
+
+        if (tournament.getBestRounds() == Common.ALL_ROUNDS) {
+            comparator = Comparator.comparing(TournamentResult::getPlayedRounds).reversed().thenComparing(byStbNet);
+        } else {
+            // results with all best rounds played are first and sorted only by stb net
+            comparator = Comparator.<TournamentResult, Boolean>comparing(tr -> tr.getPlayedRounds() < tournament.getBestRounds())
+                    .thenComparing(tr -> tr.getPlayedRounds() < tournament.getBestRounds() ? -tr.getPlayedRounds() : 0)
+                    .thenComparing(byStbNet);
+        }
+
+        return results.stream().sorted(comparator).toList();
+    }
+
+    private record ScoredRound(long playerId, String courseName, ScoringKernel.Result score) {
+    }
+}
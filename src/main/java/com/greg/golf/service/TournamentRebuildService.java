@@ -0,0 +1,265 @@
+package com.greg.golf.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.entity.Player;
+import com.greg.golf.entity.Tournament;
+import com.greg.golf.entity.TournamentPlayer;
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.TournamentRound;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.error.TournamentRebuildInProgressException;
+import com.greg.golf.repository.TournamentPlayerRepository;
+import com.greg.golf.repository.TournamentRepository;
+import com.greg.golf.repository.TournamentResultRepository;
+import com.greg.golf.service.helpers.RebuildProgress;
+import com.greg.golf.service.helpers.RoleVerification;
+import com.greg.golf.service.helpers.ScoringKernel;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// recalculates all tournament results from rounds tagged with the tournament in player_round
+// rounds and score cards are read in bulk with plain jdbc, players are scored in parallel
+// and old results are replaced by the new ones in one transaction
+// progress of finished rebuilds is kept only for the configured time
+@Slf4j
+@Service("tournamentRebuildService")
+public class TournamentRebuildService {
+
+    private final TournamentRepository tournamentRepository;
+    private final TournamentPlayerRepository tournamentPlayerRepository;
+    private final TournamentResultRepository tournamentResultRepository;
+    private final TournamentService tournamentService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private final EntityManager entityManager;
+
+    private final ForkJoinPool rebuildPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    // running rebuilds are never evicted, finished ones expire
+    private final Map<Long, RebuildProgress> rebuilds = new ConcurrentHashMap<>();
+    private final Cache<Long, RebuildProgress> finishedRebuilds;
+
+    @SuppressWarnings("java:S107")
+    public TournamentRebuildService(TournamentRepository tournamentRepository,
+                                    TournamentPlayerRepository tournamentPlayerRepository,
+                                    TournamentResultRepository tournamentResultRepository,
+                                    TournamentService tournamentService, JdbcTemplate jdbcTemplate,
+                                    EntityManager entityManager, TournamentServiceConfig tournamentServiceConfig) {
+        this.tournamentRepository = tournamentRepository;
+        this.tournamentPlayerRepository = tournamentPlayerRepository;
+        this.tournamentResultRepository = tournamentResultRepository;
+        this.tournamentService = tournamentService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+
+        finishedRebuilds = CacheBuilder.newBuilder()
+                .expireAfterWrite(tournamentServiceConfig.getRebuildProgressExpireMinutes(), TimeUnit.MINUTES)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildPool.shutdownNow();
+    }
+
+    public RebuildProgress getProgress(Long tournamentId) {
+        return Optional.ofNullable(rebuilds.get(tournamentId))
+                .or(() -> Optional.ofNullable(finishedRebuilds.getIfPresent(tournamentId)))
+                .orElseThrow();
+    }
+
+    @Transactional
+    public RebuildProgress rebuild(Long tournamentId) {
+
+        // only administrator can do it
+        RoleVerification.verifyRole(Common.ADMIN, "Attempt to rebuild tournament results by unauthorized user");
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        // only one rebuild of the tournament at the time
+        var progress = rebuilds.compute(tournamentId, (id, current) -> {
+            if (current != null) {
+                throw new TournamentRebuildInProgressException();
+            }
+            return new RebuildProgress();
+        });
+
+        // progress is finished when transaction is completed so the clients see the final state
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                progress.finish(status == STATUS_COMMITTED);
+                finishedRebuilds.put(tournamentId, progress);
+                rebuilds.remove(tournamentId, progress);
+            }
+        });
+
+        // pending changes must be visible for jdbc reads
+        entityManager.flush();
+
+        var tournamentPlayers = tournamentPlayerRepository
+                .findByTournamentId(tournamentId)
+                .stream()
+                .collect(Collectors.toMap(TournamentPlayer::getPlayerId, TournamentPlayer::getWhs));
+
+        var playerRounds = loadPlayerRounds(tournamentId);
+        var holes = loadHoles(tournamentId);
+        log.info("Rebuilding tournament " + tournamentId + " from " + playerRounds.size() + " player rounds");
+
+        // rounds are grouped per player, players are scored in parallel
+        var roundsPerPlayer = playerRounds.values()
+                .stream()
+                .filter(pr -> {
+                    if (!tournamentPlayers.containsKey(pr.playerId)) {
+                        log.warn("Player " + pr.playerId + " is not tournament player, round " + pr.roundId + " skipped");
+                        return false;
+                    }
+                    return true;
+                })
+                .collect(Collectors.groupingBy(pr -> pr.playerId, TreeMap::new, Collectors.toList()));
+
+        progress.startScoring(roundsPerPlayer.values().stream().mapToInt(List::size).sum());
+
+        List<PlayerResult> results;
+        try {
+            results = rebuildPool.submit(() -> roundsPerPlayer.entrySet()
+                    .parallelStream()
+                    .map(e -> scorePlayer(tournament, e.getKey(), tournamentPlayers.get(e.getKey()), e.getValue(),
+                            holes, progress))
+                    .filter(r -> !r.tournamentRounds().isEmpty())
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        progress.startSaving();
+
+        // swap results, other transactions see the old results till commit
+        jdbcTemplate.update("DELETE FROM tournament_round WHERE tournament_result_id IN " +
+                "(SELECT id FROM tournament_result WHERE tournament_id = ?)", tournamentId);
+        jdbcTemplate.update("DELETE FROM tournament_result WHERE tournament_id = ?", tournamentId);
+
+        var tournamentResults = new ArrayList<TournamentResult>();
+        var tournamentRounds = new ArrayList<TournamentRound>();
+        results.forEach(r -> {
+            var tournamentResult = r.tournamentResult();
+            tournamentResult.setPlayer(entityManager.getReference(Player.class, r.playerId()));
+            tournamentResult.setTournament(tournament);
+            tournamentResults.add(tournamentResult);
+            tournamentRounds.addAll(r.tournamentRounds());
+        });
+
+        tournamentResultRepository.saveAllAndFlush(tournamentResults);
+        tournamentService.batchInsertTournamentRounds(tournamentRounds);
+
+        tournamentService.leaderboardChanged(tournamentId);
+
+        log.info("Tournament " + tournamentId + " rebuilt: " + tournamentResults.size() + " results, " +
+                tournamentRounds.size() + " rounds");
+
+        return progress;
+    }
+
+    // scores all rounds of one player, runs in rebuild pool
+    private PlayerResult scorePlayer(Tournament tournament, long playerId, float whs, List<PlayerRoundData> playerRounds,
+                                     Map<Long, int[][]> holes, RebuildProgress progress) {
+
+        var score = new ScoringKernel.Result();
+        var tournamentResult = TournamentService.buildEmptyTournamentResult(null);
+        var tournamentRounds = new ArrayList<TournamentRound>();
+
+        playerRounds.sort(Comparator.comparingLong(pr -> pr.roundId));
+        playerRounds.forEach(pr -> {
+
+            var parSi = holes.get(pr.courseId);
+            if (parSi == null || Arrays.stream(pr.strokes).anyMatch(stroke -> stroke == 0)) {
+                log.warn("Round " + pr.roundId + " of player " + pr.playerId + " is incomplete and it is skipped");
+            } else {
+                ScoringKernel.score(pr.strokes, parSi[0], parSi[1],
+                        ScoringKernel.courseHcp(whs, pr.teeCr, pr.teeSr, pr.coursePar), pr.cr, pr.sr, score);
+                var tournamentRound = TournamentService.buildTournamentRound(score, pr.courseName, tournamentResult, pr.roundId);
+                TournamentService.addRoundToResult(tournament, tournamentResult, tournamentRound);
+                tournamentRounds.add(tournamentRound);
+            }
+            progress.roundProcessed();
+        });
+
+        return new PlayerResult(playerId, tournamentResult, tournamentRounds);
+    }
+
+    // player rounds tagged with the tournament together with tee and course data and strokes
+    private Map<RoundKey, PlayerRoundData> loadPlayerRounds(Long tournamentId) {
+
+        var playerRounds = new HashMap<RoundKey, PlayerRoundData>();
+
+        jdbcTemplate.query("SELECT pr.player_id, pr.round_id, pr.cr, pr.sr, ct.cr, ct.sr, r.course_id, c.name, c.par " +
+                "FROM player_round pr JOIN round r ON r.id = pr.round_id JOIN course c ON c.id = r.course_id " +
+                "JOIN course_tee ct ON ct.id = pr.tee_id WHERE pr.tournament_id = ?", rs -> {
+                    var pr = new PlayerRoundData(rs.getLong(1), rs.getLong(2), rs.getFloat(3), rs.getInt(4),
+                            rs.getFloat(5), rs.getInt(6), rs.getLong(7), rs.getString(8), rs.getInt(9),
+                            new int[ScoringKernel.HOLES]);
+                    playerRounds.put(new RoundKey(pr.roundId, pr.playerId), pr);
+                }, tournamentId);
+
+        jdbcTemplate.query("SELECT sc.round_id, sc.player_id, sc.hole, sc.stroke FROM score_card sc " +
+                "JOIN player_round pr ON pr.round_id = sc.round_id AND pr.player_id = sc.player_id " +
+                "WHERE pr.tournament_id = ?", rs -> {
+                    var pr = playerRounds.get(new RoundKey(rs.getLong(1), rs.getLong(2)));
+                    int hole = rs.getInt(3);
+                    if (pr != null && hole >= 1 && hole <= ScoringKernel.HOLES) {
+                        pr.strokes[hole - 1] = rs.getInt(4);
+                    }
+                }, tournamentId);
+
+        return playerRounds;
+    }
+
+    // par and si arrays of courses played in the tournament
+    private Map<Long, int[][]> loadHoles(Long tournamentId) {
+
+        var holes = new HashMap<Long, int[][]>();
+
+        jdbcTemplate.query("SELECT h.course_id, h.number, h.par, h.si FROM hole h WHERE h.course_id IN " +
+                "(SELECT r.course_id FROM round r JOIN player_round pr ON pr.round_id = r.id WHERE pr.tournament_id = ?)",
+                rs -> {
+                    var parSi = holes.computeIfAbsent(rs.getLong(1), id -> new int[2][ScoringKernel.HOLES]);
+                    int number = rs.getInt(2);
+                    if (number >= 1 && number <= ScoringKernel.HOLES) {
+                        parSi[0][number - 1] = rs.getInt(3);
+                        parSi[1][number - 1] = rs.getInt(4);
+                    }
+                }, tournamentId);
+
+        return holes;
+    }
+
+    private record RoundKey(long roundId, long playerId) {
+    }
+
+    private record PlayerResult(long playerId, TournamentResult tournamentResult, List<TournamentRound> tournamentRounds) {
+    }
+
+    @SuppressWarnings("java:S107")
+    private record PlayerRoundData(long playerId, long roundId, float cr, int sr, float teeCr, int teeSr, long courseId,
+                                   String courseName, int coursePar, int[] strokes) {
+    }
+}
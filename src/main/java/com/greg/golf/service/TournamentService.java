@@ -8,13 +8,16 @@ import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.error.DeleteTournamentPlayerException;
 import com.greg.golf.error.DuplicatePlayerInTournamentException;
 import com.greg.golf.repository.*;
+import com.greg.golf.service.helpers.BestRounds;
 import com.greg.golf.service.helpers.RoleVerification;
+import com.greg.golf.service.helpers.ScoringKernel;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,11 +37,14 @@ public class TournamentService {
     private final TournamentResultRepository tournamentResultRepository;
     private final TournamentRepository tournamentRepository;
     private final RoundService roundService;
-    private final CourseService courseService;
+    private final CourseRegistry courseRegistry;
     private final PlayerRoundRepository playerRoundRepository;
     private final TournamentRoundRepository tournamentRoundRepository;
     private final PlayerRepository playerRepository;
     private final TournamentPlayerRepository tournamentPlayerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TournamentLeaderboardCache tournamentLeaderboardCache;
+    private final TournamentLeaderboardPublisher tournamentLeaderboardPublisher;
 
     @Lazy
     private final TournamentService self;
@@ -87,6 +93,8 @@ public class TournamentService {
                                             .toList();
         tournamentResult.getTournament().getTournamentResult().removeAll(rstLst);
         tournamentRepository.save(tournamentResult.getTournament());
+
+        leaderboardChanged(tournamentResult.getTournament().getId());
     }
 
     @Transactional
@@ -167,6 +175,135 @@ public class TournamentService {
         return new ArrayList<>();
     }
 
+    @Transactional
+    public List<TournamentRound> addRounds(Long tournamentId, List<Long> roundIds) {
+
+        var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
+
+        var tournamentPlayers = tournamentPlayerRepository
+                .findByTournamentId(tournament.getId())
+                .stream()
+                .collect(Collectors.toMap(TournamentPlayer::getPlayerId, TournamentPlayer::getWhs));
+
+        // prefetch rounds with course and score cards
+        var distinctRoundIds = new LinkedHashSet<>(roundIds);
+        var rounds = roundService.getWithScoreCards(distinctRoundIds)
+                .stream()
+                .collect(Collectors.toMap(Round::getId, r -> r));
+        if (rounds.size() != distinctRoundIds.size()) {
+            throw new NoSuchElementException();
+        }
+
+        // prefetch player rounds for all rounds
+        var playerRounds = roundService.getForRoundsDetails(distinctRoundIds)
+                .stream()
+                .collect(Collectors.groupingBy(PlayerRound::getRoundId));
+
+        // only player rounds not yet assigned to tournament and belonging to tournament players are processed
+        var applicablePlayerRounds = playerRounds.values()
+                .stream()
+                .flatMap(List::stream)
+                .filter(pr -> pr.getTournamentId() == null && tournamentPlayers.containsKey(pr.getPlayerId()))
+                .toList();
+
+        // prefetch tournament results, tees and courses are taken from the registry
+        var tournamentResults = tournamentResultRepository
+                .findByTournamentAndPlayerIdIn(tournament, applicablePlayerRounds.stream().map(PlayerRound::getPlayerId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(tr -> tr.getPlayer().getId(), tr -> tr));
+
+        // best rounds of results created before best rounds heaps were introduced are initialized in one query
+        var uninitializedResults = tournamentResults.values()
+                .stream()
+                .filter(tr -> !isBestRoundsInitialized(tournament, tr))
+                .toList();
+        if (!uninitializedResults.isEmpty()) {
+            var resultRounds = new IdentityHashMap<TournamentResult, List<TournamentRound>>();
+            tournamentRoundRepository.findByTournamentResultInOrderByIdAsc(uninitializedResults)
+                    .forEach(tr -> resultRounds.computeIfAbsent(tr.getTournamentResult(), r -> new ArrayList<>()).add(tr));
+            uninitializedResults.forEach(tr ->
+                    BestRounds.init(tr, tournament.getBestRounds(), resultRounds.getOrDefault(tr, List.of())));
+        }
+
+        var tournamentRoundLst = new ArrayList<TournamentRound>();
+        var updatedResults = Collections.newSetFromMap(new IdentityHashMap<TournamentResult, Boolean>());
+        var score = new ScoringKernel.Result();
+
+        distinctRoundIds.forEach(roundId -> {
+
+            var round = rounds.get(roundId);
+            var roundPlayers = playerRounds.getOrDefault(roundId, List.of());
+
+            // verify if round has 18 holes played for each player
+            var playerStrokes = getPlayerStrokes(round);
+            verifyRoundCorrectness(roundPlayers.stream().map(PlayerRound::getPlayerId).toList(), playerStrokes);
+
+            var course = courseRegistry.getCourse(round.getCourse().getId());
+
+            roundPlayers.stream()
+                    .filter(pr -> pr.getTournamentId() == null && tournamentPlayers.containsKey(pr.getPlayerId()))
+                    .forEach(playerRound -> {
+
+                var courseTee = courseRegistry.getTee(playerRound.getTeeId());
+                ScoringKernel.score(playerStrokes.get(playerRound.getPlayerId()), course.par(), course.si(),
+                        ScoringKernel.courseHcp(tournamentPlayers.get(playerRound.getPlayerId()), courseTee.cr(),
+                                courseTee.sr(), course.coursePar()),
+                        playerRound.getCr(), playerRound.getSr(), score);
+
+                var tournamentResult = tournamentResults.computeIfAbsent(playerRound.getPlayerId(), playerId -> {
+                    var tr = buildEmptyTournamentResult(entityManager.getReference(Player.class, playerId));
+                    tr.setTournament(tournament);
+                    return tr;
+                });
+                var tournamentRound = buildTournamentRound(score, course.name(), tournamentResult, round.getId());
+                addRoundToResult(tournament, tournamentResult, tournamentRound);
+                updatedResults.add(tournamentResult);
+                tournamentRoundLst.add(tournamentRound);
+
+                // set tournament id in player_round, updates are sent in one batch on flush
+                playerRound.setTournamentId(tournament.getId());
+            });
+        });
+
+        // results must be flushed to get ids for the new results
+        tournamentResultRepository.saveAllAndFlush(updatedResults);
+
+        batchInsertTournamentRounds(tournamentRoundLst);
+
+        if (!tournamentRoundLst.isEmpty()) {
+            leaderboardChanged(tournament.getId());
+        }
+
+        log.debug("Added " + tournamentRoundLst.size() + " tournament rounds for " + distinctRoundIds.size() + " rounds");
+
+        return tournamentRoundLst;
+    }
+
+    // cached leaderboard is invalidated and the delta is published to subscribers, both after commit
+    public void leaderboardChanged(Long tournamentId) {
+
+        tournamentLeaderboardCache.invalidate(tournamentId);
+        tournamentLeaderboardPublisher.publish(tournamentId);
+    }
+
+    // inserts tournament rounds in one jdbc batch, tournament results must already have ids
+    public void batchInsertTournamentRounds(List<TournamentRound> tournamentRounds) {
+
+        jdbcTemplate.batchUpdate("INSERT INTO tournament_round (tournament_result_id, strokes_brutto, strokes_netto, " +
+                        "stb_net, stb_gross, scr_diff, strokes, course_name, round_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                tournamentRounds, tournamentRounds.size(), (ps, tr) -> {
+                    ps.setLong(1, tr.getTournamentResult().getId());
+                    ps.setInt(2, tr.getStrokesBrutto());
+                    ps.setInt(3, tr.getStrokesNetto());
+                    ps.setInt(4, tr.getStbNet());
+                    ps.setInt(5, tr.getStbGross());
+                    ps.setFloat(6, tr.getScrDiff());
+                    ps.setBoolean(7, tr.getStrokes());
+                    ps.setString(8, tr.getCourseName());
+                    ps.setInt(9, tr.getRoundId());
+                });
+    }
+
     @Transactional(propagation = Propagation.REQUIRED)
     @EventListener
     public void handleRoundEvent(RoundEvent roundEvent) {
@@ -183,8 +320,16 @@ public class TournamentService {
                                 .stream()
                                 .collect(Collectors.toMap(TournamentPlayer::getPlayerId, TournamentPlayer::getWhs));
 
+        // collect strokes of all players in one pass
+        var playerStrokes = getPlayerStrokes(round);
+
         // first verify if round has 18 holes played for each player
-        verifyRoundCorrectness(round);
+        verifyRoundCorrectness(round.getPlayer().stream().map(Player::getId).toList(), playerStrokes);
+
+        // par and si of the course holes
+        var course = courseRegistry.getCourse(round.getCourse().getId());
+
+        var score = new ScoringKernel.Result();
 
         // iterate through round players and check if they already added
         round.getPlayer().forEach(player -> {
@@ -193,62 +338,41 @@ public class TournamentService {
 
             if (playerRound.getTournamentId() == null && tournamentPlayers.containsKey(playerRound.getPlayerId())) {
 
+                // calculate all scores for the player
+                ScoringKernel.score(playerStrokes.get(player.getId()), course.par(), course.si(),
+                        getCourseHCP(playerRound, round, player, tournamentPlayers.get(player.getId())),
+                        playerRound.getCr(), playerRound.getSr(), score);
+
                 Optional<TournamentResult> tournamentResultOpt = tournamentResultRepository
                         .findByPlayerAndTournament(player, tournament);
                 tournamentResultOpt.ifPresentOrElse(tournamentResult -> {
                     log.debug("Attempting to update tournament result");
 
-                    tournamentResult.setPlayedRounds(tournamentResult.getPlayedRounds() + 1);
-                    int grossStrokes = 0;
-                    int netStrokes = 0;
-                    List<Integer> stb = updateSTB(tournamentResult, round, playerRound, player, tournamentPlayers.get(player.getId()));
-                    // check if round is applicable for stroke statistic
-                    boolean strokeApplicable = applicableForStroke(round, player);
-                    if (strokeApplicable) {
-                        tournamentResult.increaseStrokeRounds();
-                        grossStrokes = getGrossStrokes(player, round);
-                        netStrokes = getNetStrokes(player, round, grossStrokes, playerRound, tournamentPlayers.get(player.getId()));
+                    // results created before best rounds heaps were introduced need to be initialized once
+                    if (!isBestRoundsInitialized(tournament, tournamentResult)) {
+                        BestRounds.init(tournamentResult, tournament.getBestRounds(),
+                                tournamentRoundRepository.findByTournamentResultOrderByIdAsc(tournamentResult));
                     }
-                    tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() + grossStrokes);
-                    tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() + netStrokes);
+
+                    var tournamentRound = buildTournamentRound(score, course.name(), tournamentResult, round.getId());
+                    addRoundToResult(tournament, tournamentResult, tournamentRound);
 
                     // save entity
                     tournamentResultRepository.save(tournamentResult);
 
-                    tournamentRoundLst.add(addTournamentRound(stb.get(1), stb.get(0), grossStrokes, netStrokes,
-                            getScoreDifferential(playerRound, round, player), round.getCourse().getName(),
-                            tournamentResult, strokeApplicable, round.getId()));
-
-                    // here needs to be an update of TournamentResults in case if number of added rounds is greater
-                    // than bestRounds assuming that bestRounds is not 0
-                    updateForBestRounds(tournament, tournamentResult);
-
+                    tournamentRoundLst.add(tournamentRoundRepository.save(tournamentRound));
 
                 }, () -> {
                     log.debug("Attempting to add the new round to tournament result");
                     // if it is the first record to be added to result than create it
                     var tournamentResult = buildEmptyTournamentResult(player);
                     tournamentResult.setTournament(tournament);
-                    // update stb results
-                    List<Integer> stb = updateSTB(tournamentResult, round, playerRound, player, tournamentPlayers.get(player.getId()));
-                    // check if round is applicable for stroke statistic
-                    boolean strokeApplicable = applicableForStroke(round, player);
-                    if (strokeApplicable) {
-                        tournamentResult.increaseStrokeRounds();
-                        // get gross and net strokes
-                        tournamentResult.setStrokesBrutto(getGrossStrokes(player, round));
-                        tournamentResult.setStrokesNetto(
-                                getNetStrokes(player, round, tournamentResult.getStrokesBrutto(), playerRound, tournamentPlayers.get(player.getId())));
-                    } else {
-                        tournamentResult.setStrokesBrutto(0);
-                        tournamentResult.setStrokesNetto(0);
-                    }
+                    var tournamentRound = buildTournamentRound(score, course.name(), tournamentResult, round.getId());
+                    addRoundToResult(tournament, tournamentResult, tournamentRound);
                     // save entity
                     tournamentResultRepository.save(tournamentResult);
 
-                    tournamentRoundLst.add(addTournamentRound(stb.get(1), stb.get(0), tournamentResult.getStrokesBrutto(),
-                            tournamentResult.getStrokesNetto(), getScoreDifferential(playerRound, round, player),
-                            round.getCourse().getName(), tournamentResult, strokeApplicable, round.getId()));
+                    tournamentRoundLst.add(tournamentRoundRepository.save(tournamentRound));
 
                 });
 
@@ -258,71 +382,70 @@ public class TournamentService {
             }
         });
 
+        if (!tournamentRoundLst.isEmpty()) {
+            leaderboardChanged(tournament.getId());
+        }
+
         return tournamentRoundLst;
     }
 
-    private void updateForBestRounds(Tournament tournament, TournamentResult tournamentResult) {
+    // adds round to the tournament result totals
+    // if only best rounds are counted totals are maintained by best rounds heaps without reloading rounds
+    static void addRoundToResult(Tournament tournament, TournamentResult tournamentResult, TournamentRound tournamentRound) {
 
-        // skip processing if all rounds shall be included
-        if (tournament.getBestRounds() == Common.ALL_ROUNDS) {
-            log.debug("Skipping as all rounds should be included");
-            return;
+        tournamentResult.setPlayedRounds(tournamentResult.getPlayedRounds() + 1);
+
+        // check if round is applicable for stroke statistic
+        if (Boolean.TRUE.equals(tournamentRound.getStrokes())) {
+            tournamentResult.increaseStrokeRounds();
         }
-        // get all rounds
-        List<TournamentRound> tournamentRoundList =
-                tournamentRoundRepository.findByTournamentResultOrderByIdAsc(tournamentResult);
-        // skip processing if number of rounds is lower equal bestRounds
-        if (tournamentRoundList.size() <= tournament.getBestRounds()) {
-            log.debug("Skipping as number of rounds is lower or equals than number of best rounds");
+
+        if (tournament.getBestRounds() != Common.ALL_ROUNDS) {
+            if (tournamentResult.getBestStbNet() == null
+                    || tournamentResult.getBestStbNet().length != tournament.getBestRounds()) {
+                BestRounds.init(tournamentResult, tournament.getBestRounds(), List.of());
+            }
+            BestRounds.add(tournamentResult, tournamentRound);
             return;
         }
-        log.debug("All checks done - beginning of updating tournament result");
-
-        // calculate stb net - more the better
-        tournamentResult.setStbNet(
-                tournamentRoundList
-                        .stream()
-                        .mapToInt(TournamentRound::getStbNet)
-                        .boxed()
-                        .sorted(Comparator.reverseOrder())
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // calculate stb gross - more the better
-        tournamentResult.setStbGross(
-                tournamentRoundList
-                        .stream()
-                        .mapToInt(TournamentRound::getStbGross)
-                        .boxed()
-                        .sorted(Comparator.reverseOrder())
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // calculate net strokes - lower the better
-        tournamentResult.setStrokesNetto(
-                tournamentRoundList
-                        .stream()
-                        .filter(TournamentRound::getStrokes)
-                        .mapToInt(TournamentRound::getStrokesNetto)
-                        .boxed()
-                        .sorted()
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // calculate gross strokes - lower the better
-        tournamentResult.setStrokesBrutto(
-                tournamentRoundList
-                        .stream()
-                        .filter(TournamentRound::getStrokes)
-                        .mapToInt(TournamentRound::getStrokesBrutto)
-                        .boxed()
-                        .sorted()
-                        .limit(tournament.getBestRounds())
-                        .reduce(0, Integer::sum));
-
-        // update tournament results in database
-        log.debug("Update tournament results in database");
-        tournamentResultRepository.save(tournamentResult);
+
+        tournamentResult.setStbNet(tournamentResult.getStbNet() + tournamentRound.getStbNet());
+        tournamentResult.setStbGross(tournamentResult.getStbGross() + tournamentRound.getStbGross());
+        if (Boolean.TRUE.equals(tournamentRound.getStrokes())) {
+            tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() + tournamentRound.getStrokesBrutto());
+            tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() + tournamentRound.getStrokesNetto());
+        }
+    }
+
+    // new results are initialized when the first round is added, so only already played results are verified
+    static boolean isBestRoundsInitialized(Tournament tournament, TournamentResult tournamentResult) {
+
+        return tournament.getBestRounds() == Common.ALL_ROUNDS
+                || tournamentResult.getPlayedRounds() == 0
+                || (tournamentResult.getBestStbNet() != null
+                    && tournamentResult.getBestStbNet().length == tournament.getBestRounds());
+    }
+
+    static TournamentRound buildTournamentRound(ScoringKernel.Result score, String courseName,
+                                                TournamentResult tournamentResult, long roundId) {
+
+        boolean strokeApplicable = score.isStrokeApplicable();
+
+        return buildTournamentRound(score.getStbGross(), score.getStbNet(),
+                strokeApplicable ? score.getGrossStrokes() : 0, strokeApplicable ? score.getNetStrokes() : 0,
+                score.getScoreDifferential(), courseName, tournamentResult, strokeApplicable, roundId);
+    }
+
+    // returns strokes for each player indexed by hole number - 1
+    private Map<Long, int[]> getPlayerStrokes(Round round) {
+
+        var playerStrokes = new HashMap<Long, int[]>();
+
+        round.getScoreCard().forEach(scoreCard ->
+            playerStrokes.computeIfAbsent(scoreCard.getPlayer().getId(), id -> new int[TOURNAMENT_HOLES])
+                    [scoreCard.getHole() - 1] = scoreCard.getStroke());
+
+        return playerStrokes;
     }
 
     @SuppressWarnings("java:S107")
@@ -331,6 +454,19 @@ public class TournamentService {
                                               String courseName, TournamentResult tournamentResult, boolean strokeApplicable,
                                               long roundId) {
 
+        var tournamentRound = buildTournamentRound(stbGross, stbNet, strokesGross, strokesNet, scrDiff, courseName,
+                tournamentResult, strokeApplicable, roundId);
+
+        tournamentRound = tournamentRoundRepository.save(tournamentRound);
+
+        return tournamentRound;
+    }
+
+    @SuppressWarnings("java:S107")
+    static TournamentRound buildTournamentRound(int stbGross, int stbNet, int strokesGross, int strokesNet, float scrDiff,
+                                                String courseName, TournamentResult tournamentResult, boolean strokeApplicable,
+                                                long roundId) {
+
         var tournamentRound = new TournamentRound();
         tournamentRound.setCourseName(courseName);
         tournamentRound.setScrDiff(scrDiff);
@@ -342,8 +478,6 @@ public class TournamentService {
         tournamentRound.setStrokes(strokeApplicable);
         tournamentRound.setRoundId((int)roundId);
 
-        tournamentRound = tournamentRoundRepository.save(tournamentRound);
-
         return tournamentRound;
     }
 
@@ -357,174 +491,13 @@ public class TournamentService {
 
     }
 
-    // calculate score differential
-    @Transactional
-    public float getScoreDifferential(PlayerRound playerRound, Round round, Player player) {
-
-        return (113 / (float) playerRound.getSr()) * (self.getCorrectedStrokes(player, round) - playerRound.getCr());
-
-    }
-
-    // calculate gross strokes
-    @Transactional
-    public int getGrossStrokes(Player player, Round round) {
-
-        log.debug("player: " + player);
-        log.debug("round: " + round);
-
-        // calculate gross result
-        int grossStrokes = round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                .mapToInt(ScoreCard::getStroke).sum();
-        log.debug("Calculated gross strokes: " + grossStrokes);
-        return grossStrokes;
-    }
-
-    // calculate gross strokes
-    @Transactional
-    public boolean applicableForStroke(Round round, Player player) {
-
-        log.debug("Start checking round for stroke statistic");
-
-        //search for 16 which means that hole has been given up
-        return round.getScoreCard()
-                .stream()
-                .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                .noneMatch(scoreCard -> scoreCard.getStroke() >= Common.HOLE_GIVEN_UP);
-    }
-
-    // calculate corrected strokes
-    @Transactional
-    public int getCorrectedStrokes(Player player, Round round) {
-
-        log.debug("player: " + player);
-        log.debug("round: " + round);
-
-        List<Hole> holes = round.getCourse().getHoles();
-
-        // calculate gross result
-        int grossStrokes = round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                .mapToInt(scoreCard -> {
-
-                    if ((scoreCard.getHcp() + 2 + holes.get(scoreCard.getHole() - 1).getPar()) < scoreCard
-                            .getStroke()) {
-                        return scoreCard.getHcp() + 2 + holes.get(scoreCard.getHole() - 1).getPar();
-                    } else {
-                        return scoreCard.getStroke();
-                    }
-
-                }).sum();
-
-        log.debug("Calculated corrected strokes: " + grossStrokes);
-        return grossStrokes;
-    }
-
-    // calculate net strokes
-    @Transactional
-    public int getNetStrokes(Player player, Round round, int grossStrokes, PlayerRound playerRound, Float playerHcp) {
-
-        // calculate course HCP
-        int courseHCP = getCourseHCP(playerRound, round, player, playerHcp);
-
-        int netStrokes = grossStrokes - courseHCP;
-        if (netStrokes < 0) {
-            netStrokes = 0;
-        }
-
-        log.debug("Calculated net strokes: " + netStrokes);
-        return netStrokes;
-    }
-
-    // returns STB net at index 0 and STB gross at index 1
-    @Transactional
-    public List<Integer> updateSTB(TournamentResult tournamentResult, Round round, PlayerRound playerRound,
-                                   Player player, Float playerHcp) {
-
-        // create List of ret values
-        List<Integer> retStb = new ArrayList<>();
-
-        // calculate course HCP
-        int courseHCP = getCourseHCP(playerRound, round, player, playerHcp);
-
-        // calculate hole HCP for player
-        int hcpAll = (int) Math.floor((double) courseHCP / 18);
-        int hcpIncMaxHole = courseHCP - (hcpAll * 18);
-        log.debug("hcpAll " + hcpAll);
-        log.debug("hcpIncMaxHole " + hcpIncMaxHole);
-
-        // fill all holes with hcpAll value or initialize it with 0 if hcpAll is 0
-        round.getScoreCard().forEach(scoreCard -> scoreCard.setHcp(hcpAll));
-
-        List<Hole> holes = round.getCourse().getHoles();
-        // get list of scorecard for player
-        List<ScoreCard> playerScoreCard = round.getScoreCard()
-                                            .stream()
-                                            .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
-                                            .toList();
-        playerScoreCard.forEach(scoreCard -> {
-            if (hcpIncMaxHole > 0 && holes.get(scoreCard.getHole() - 1).getSi() <= hcpIncMaxHole) {
-                // if some holes needs hcp update increase them
-                scoreCard.setHcp(hcpAll + 1);
-            }
-
-            // update STB net for each hole
-            scoreCard.setStbNet(
-                    holes.get(scoreCard.getHole() - 1).getPar() - (scoreCard.getStroke() - scoreCard.getHcp()) + 2);
-            if (scoreCard.getStbNet() < 0) {
-                scoreCard.setStbNet(0);
-            }
-            log.debug(scoreCard.getHole() + " " + scoreCard.getStbNet());
-            // update STB gross for each hole
-            scoreCard.setStbGross(holes.get(scoreCard.getHole() - 1).getPar() - scoreCard.getStroke() + 2);
-            if (scoreCard.getStbGross() < 0) {
-                scoreCard.setStbGross(0);
-            }
-        });
-
-        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbNet).sum());
-        tournamentResult.setStbNet(tournamentResult.getStbNet() + retStb.get(0));
-
-        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbGross).sum());
-        tournamentResult.setStbGross(tournamentResult.getStbGross() + retStb.get(1));
-
-        return retStb;
-    }
-
     @Transactional
     public List<Round> getAllPossibleRoundsForTournament(Long tournamentId) {
 
-        var retRounds = new ArrayList<Round>();
-
         var tournament = tournamentRepository.findById(tournamentId).orElseThrow();
-        var rounds =  roundService.findByDates(tournament.getStartDate(), tournament.getEndDate());
-
-        if (!rounds.isEmpty()) {
-
-            var tournamentPlayers = tournamentPlayerRepository.findByTournamentId(tournament.getId());
-            var plrIdLst = tournamentPlayers
-                            .stream()
-                            .map(TournamentPlayer::getPlayerId)
-                            .toList();
-
-            rounds.forEach(r -> {
-
-                if (Collections.disjoint(plrIdLst,
-                                         playerRoundRepository.findByRoundIdOrderByPlayerId(r.getId())
-                                                .orElseThrow()
-                                                .stream()
-                                                .filter(pr -> pr.getTournamentId() == null)
-                                                .map(PlayerRound::getPlayerId)
-                                                .toList())) {
-
-                    log.info("The round with non matching player found: round id " + r.getId() + " with number of players: " + r.getPlayer().size());
-
-                } else {
 
-                    retRounds.add(r);
-                }
-            });
-        }
-
-        return retRounds;
+        // rounds with at least one tournament player not yet added to tournament are selected in one query
+        return roundService.findTournamentCandidates(tournament.getId(), tournament.getStartDate(), tournament.getEndDate());
     }
 
     private int getCourseHCP(PlayerRound playerRound, Round round, Player player, Float playerHcp) {
@@ -534,40 +507,47 @@ public class TournamentService {
             playerRound = roundService.getForPlayerRoundDetails(player.getId(), round.getId());
         }
 
-        var courseTee = courseService.getTeeById(playerRound.getTeeId()).orElseThrow();
+        var courseTee = courseRegistry.getTee(playerRound.getTeeId());
+        var coursePar = courseRegistry.getCourse(round.getCourse().getId()).coursePar();
 
         // calculate course HCP
-        int courseHCP = Math
-                .round(playerHcp * courseTee.getSr() / 113 + courseTee.getCr() - round.getCourse().getPar());
+        int courseHCP = ScoringKernel.courseHcp(playerHcp, courseTee.cr(), courseTee.sr(), coursePar);
 
-        log.debug("Course SR: " + courseTee.getSr());
-        log.debug("Course CR: " + courseTee.getCr());
-        log.debug("Course Par: " + round.getCourse().getPar());
+        log.debug("Course SR: " + courseTee.sr());
+        log.debug("Course CR: " + courseTee.cr());
+        log.debug("Course Par: " + coursePar);
         log.debug("Calculated course HCP: " + courseHCP);
 
         return courseHCP;
     }
 
-    private TournamentResult buildEmptyTournamentResult(Player player) {
+    static TournamentResult buildEmptyTournamentResult(Player player) {
 
         var tournamentResult = new TournamentResult();
-        tournamentResult.setPlayedRounds(1);
+        tournamentResult.setPlayedRounds(0);
         tournamentResult.setPlayer(player);
         tournamentResult.setStbNet(0);
         tournamentResult.setStbGross(0);
+        tournamentResult.setStrokesBrutto(0);
+        tournamentResult.setStrokesNetto(0);
         tournamentResult.setStrokeRounds(0);
 
         return tournamentResult;
     }
 
     // verifies if all scorecards have all 18 holes filled
-    private void verifyRoundCorrectness(Round round) {
+    private void verifyRoundCorrectness(List<Long> playerIds, Map<Long, int[]> playerStrokes) {
 
-        round.getPlayer().forEach(player -> {
+        playerIds.forEach(playerId -> {
 
             // calculate played holes
-            int playedHoles = (int) round.getScoreCard().stream()
-                    .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()) && scoreCard.getStroke() > 0).count();
+            var strokes = playerStrokes.get(playerId);
+            int playedHoles = 0;
+            for (var i = 0; strokes != null && i < TOURNAMENT_HOLES; i++) {
+                if (strokes[i] > 0) {
+                    playedHoles++;
+                }
+            }
             log.debug("Number of holes: " + playedHoles);
             if (playedHoles != TOURNAMENT_HOLES) {
                 throw new TooFewHolesForTournamentException();
@@ -586,6 +566,8 @@ public class TournamentService {
         // set close flag
         tournament.setStatus(Tournament.STATUS_CLOSE);
         tournamentRepository.save(tournament);
+
+        leaderboardChanged(tournamentId);
     }
 
     @Transactional
@@ -663,5 +645,7 @@ public class TournamentService {
         var tournamentPlayer = tournamentPlayerRepository.findByTournamentIdAndPlayerId(tournamentId, playerId).orElseThrow();
         tournamentPlayer.setWhs(whs);
         tournamentPlayerRepository.save(tournamentPlayer);
+
+        leaderboardChanged(tournamentId);
     }
 }
@@ -0,0 +1,119 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.TournamentRound;
+
+import java.util.Arrays;
+import java.util.List;
+
+// bounded top-K of round results kept as a binary heap in plain int array
+// the worst of kept values is always at index 0, empty slots hold EMPTY
+// so a new value is either ignored or replaces the root in O(log K)
+public class BestRounds {
+
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private BestRounds() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static int[] create(int bestRounds) {
+
+        var heap = new int[bestRounds];
+        Arrays.fill(heap, EMPTY);
+        return heap;
+    }
+
+    // builds heaps of tournament result from already added rounds and sets totals to the sums of best rounds
+    public static void init(TournamentResult tournamentResult, int bestRounds, List<TournamentRound> tournamentRounds) {
+
+        tournamentResult.setBestStbNet(create(bestRounds));
+        tournamentResult.setBestStbGross(create(bestRounds));
+        tournamentResult.setBestStrokesNetto(create(bestRounds));
+        tournamentResult.setBestStrokesBrutto(create(bestRounds));
+        tournamentResult.setStbNet(0);
+        tournamentResult.setStbGross(0);
+        tournamentResult.setStrokesNetto(0);
+        tournamentResult.setStrokesBrutto(0);
+
+        tournamentRounds.forEach(tournamentRound -> add(tournamentResult, tournamentRound));
+    }
+
+    // updates heaps and totals of tournament result with the new round, stb more the better, strokes lower the better
+    // only rounds applicable for stroke statistic are counted for strokes
+    public static void add(TournamentResult tournamentResult, TournamentRound tournamentRound) {
+
+        tournamentResult.setStbNet(tournamentResult.getStbNet() +
+                offer(tournamentResult.getBestStbNet(), tournamentRound.getStbNet(), true));
+        tournamentResult.setStbGross(tournamentResult.getStbGross() +
+                offer(tournamentResult.getBestStbGross(), tournamentRound.getStbGross(), true));
+
+        if (Boolean.TRUE.equals(tournamentRound.getStrokes())) {
+            tournamentResult.setStrokesNetto(tournamentResult.getStrokesNetto() +
+                    offer(tournamentResult.getBestStrokesNetto(), tournamentRound.getStrokesNetto(), false));
+            tournamentResult.setStrokesBrutto(tournamentResult.getStrokesBrutto() +
+                    offer(tournamentResult.getBestStrokesBrutto(), tournamentRound.getStrokesBrutto(), false));
+        }
+    }
+
+    // offers value to the heap, higherBetter decides if more (stb) or less (strokes) is better
+    // returns the change of the sum of kept values
+    public static int offer(int[] heap, int value, boolean higherBetter) {
+
+        if (heap.length == 0) {
+            return 0;
+        }
+
+        int root = heap[0];
+        if (root != EMPTY && !worse(root, value, higherBetter)) {
+            return 0;
+        }
+
+        heap[0] = value;
+        siftDown(heap, higherBetter);
+
+        return root == EMPTY ? value : value - root;
+    }
+
+    // sum of kept values
+    public static int sum(int[] heap) {
+
+        int sum = 0;
+        for (int value : heap) {
+            if (value != EMPTY) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+
+    // empty slots are always the worst ones so they stay on top till the heap is filled
+    private static boolean worse(int a, int b, boolean higherBetter) {
+
+        if (a == EMPTY || b == EMPTY) {
+            return a == EMPTY && b != EMPTY;
+        }
+        return higherBetter ? a < b : a > b;
+    }
+
+    private static void siftDown(int[] heap, boolean higherBetter) {
+
+        int i = 0;
+        int value = heap[0];
+        int half = heap.length >>> 1;
+
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < heap.length && worse(heap[right], heap[child], higherBetter)) {
+                child = right;
+            }
+            if (!worse(heap[child], value, higherBetter)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = value;
+    }
+}
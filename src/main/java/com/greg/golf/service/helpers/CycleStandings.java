@@ -0,0 +1,70 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.entity.CycleResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+// cycle standings calculated directly on primitive result arrays
+// best rounds are selected with bounded heap from BestRounds instead of sorting all results
+// the length of results array is the number of tournament rounds so arrays grow exactly by one tournament
+public class CycleStandings {
+
+    // below that number of players parallel processing does not pay off
+    public static final int PARALLEL_THRESHOLD = 2000;
+
+    private CycleStandings() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // results of the new tournament appended to the existing ones
+    public static int[] append(int[] results, int[] tournamentResults) {
+
+        var appended = Arrays.copyOf(results, results.length + tournamentResults.length);
+        System.arraycopy(tournamentResults, 0, appended, results.length, tournamentResults.length);
+        return appended;
+    }
+
+    // results of player who did not play previous tournaments, missing results are 0
+    public static int[] prepend(int missing, int[] tournamentResults) {
+
+        var prepended = new int[missing + tournamentResults.length];
+        System.arraycopy(tournamentResults, 0, prepended, missing, tournamentResults.length);
+        return prepended;
+    }
+
+    public static int[] removeLast(int[] results, int rounds) {
+        return Arrays.copyOf(results, Math.max(results.length - rounds, 0));
+    }
+
+    // sets cycle score and total for all players, for all rounds if bestRounds is 0
+    public static void update(List<CycleResult> cycleResults, int bestRounds) {
+
+        if (cycleResults.size() >= PARALLEL_THRESHOLD) {
+            cycleResults.parallelStream().forEach(cycleResult -> update(cycleResult, bestRounds, new int[bestRounds]));
+        } else {
+            var heap = new int[bestRounds];
+            cycleResults.forEach(cycleResult -> update(cycleResult, bestRounds, heap));
+        }
+    }
+
+    // heap is reused between players, it must have bestRounds length
+    static void update(CycleResult cycleResult, int bestRounds, int[] heap) {
+
+        var results = cycleResult.getResults();
+
+        int total = 0;
+        int cycleScore = 0;
+        Arrays.fill(heap, BestRounds.EMPTY);
+
+        for (int result : results) {
+            total += result;
+            if (bestRounds > 0) {
+                cycleScore += BestRounds.offer(heap, result, true);
+            }
+        }
+
+        cycleResult.setTotal(total);
+        cycleResult.setCycleScore(bestRounds > 0 ? cycleScore : total);
+    }
+}
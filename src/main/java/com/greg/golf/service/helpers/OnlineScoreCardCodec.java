@@ -0,0 +1,146 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.controller.dto.PlayerDto;
+import org.springframework.util.MimeType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// compact fixed layout of the online score card for clients on slow links, selected by content-type
+// online round id, player id and change sequence as 8 bytes, hole, stroke, putt, penalty, update flag, hour and minute
+// as 1 byte, missing putt, penalty and time are sent as -1, missing player and sequence as 0
+// snapshot is the list of score cards sent one after another
+public class OnlineScoreCardCodec {
+
+    public static final MimeType MIME_TYPE = new MimeType("application", "octet-stream", Map.of("layout", "scorecard"));
+    public static final int SIZE = 31;
+
+    private OnlineScoreCardCodec() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static byte[] encode(OnlineScoreCardDto onlineScoreCard) {
+
+        var bytes = new byte[SIZE];
+        encode(onlineScoreCard, bytes, 0);
+        return bytes;
+    }
+
+    public static byte[] encode(List<OnlineScoreCardDto> onlineScoreCards) {
+
+        var bytes = new byte[SIZE * onlineScoreCards.size()];
+        for (var i = 0; i < onlineScoreCards.size(); i++) {
+            encode(onlineScoreCards.get(i), bytes, i * SIZE);
+        }
+        return bytes;
+    }
+
+    public static OnlineScoreCardDto decode(byte[] bytes) {
+
+        if (bytes.length != SIZE) {
+            throw new IllegalArgumentException("Invalid size of score card: " + bytes.length);
+        }
+        return decode(bytes, 0);
+    }
+
+    public static List<OnlineScoreCardDto> decodeAll(byte[] bytes) {
+
+        if (bytes.length % SIZE != 0) {
+            throw new IllegalArgumentException("Invalid size of score cards: " + bytes.length);
+        }
+
+        var onlineScoreCards = new ArrayList<OnlineScoreCardDto>(bytes.length / SIZE);
+        for (var offset = 0; offset < bytes.length; offset += SIZE) {
+            onlineScoreCards.add(decode(bytes, offset));
+        }
+        return onlineScoreCards;
+    }
+
+    private static void encode(OnlineScoreCardDto onlineScoreCard, byte[] bytes, int offset) {
+
+        putLong(bytes, offset, onlineScoreCard.getOrId());
+        var player = onlineScoreCard.getPlayer();
+        putLong(bytes, offset + 8, player == null || player.getId() == null ? 0 : player.getId());
+        var sequence = onlineScoreCard.getSequence();
+        putLong(bytes, offset + 16, sequence == null ? 0 : sequence);
+        bytes[offset + 24] = toByte(onlineScoreCard.getHole());
+        bytes[offset + 25] = toByte(onlineScoreCard.getStroke());
+        bytes[offset + 26] = toByte(onlineScoreCard.getPutt());
+        bytes[offset + 27] = toByte(onlineScoreCard.getPenalty());
+        bytes[offset + 28] = (byte) (onlineScoreCard.isUpdate() ? 1 : 0);
+
+        var time = onlineScoreCard.getTime();
+        if (time != null && time.length() == 5) {
+            bytes[offset + 29] = (byte) ((time.charAt(0) - '0') * 10 + time.charAt(1) - '0');
+            bytes[offset + 30] = (byte) ((time.charAt(3) - '0') * 10 + time.charAt(4) - '0');
+        } else {
+            bytes[offset + 29] = -1;
+            bytes[offset + 30] = -1;
+        }
+    }
+
+    // values out of range of the score card are rejected, so the time is always two digits
+    private static OnlineScoreCardDto decode(byte[] bytes, int offset) {
+
+        var onlineScoreCard = new OnlineScoreCardDto();
+        onlineScoreCard.setOrId(getLong(bytes, offset));
+        var playerId = getLong(bytes, offset + 8);
+        if (playerId != 0) {
+            var player = new PlayerDto();
+            player.setId(playerId);
+            onlineScoreCard.setPlayer(player);
+        }
+        var sequence = getLong(bytes, offset + 16);
+        onlineScoreCard.setSequence(sequence == 0 ? null : sequence);
+        onlineScoreCard.setHole(toInteger(bytes[offset + 24], 1, 18, "hole"));
+        onlineScoreCard.setStroke(toInteger(bytes[offset + 25], 0, 16, "stroke"));
+        onlineScoreCard.setPutt(toInteger(bytes[offset + 26], 0, 10, "putt"));
+        onlineScoreCard.setPenalty(toInteger(bytes[offset + 27], 0, 15, "penalty"));
+        onlineScoreCard.setUpdate(bytes[offset + 28] == 1);
+
+        var hour = toInteger(bytes[offset + 29], 0, 23, "hour");
+        var minute = toInteger(bytes[offset + 30], 0, 59, "minute");
+        if ((hour == null) != (minute == null)) {
+            throw new IllegalArgumentException("Incomplete time of score card");
+        }
+        if (hour != null) {
+            onlineScoreCard.setTime(new String(new char[] {(char) ('0' + hour / 10), (char) ('0' + hour % 10),
+                    ':', (char) ('0' + minute / 10), (char) ('0' + minute % 10)}));
+        }
+        return onlineScoreCard;
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+
+        for (var i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+
+        long value = 0;
+        for (var i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static byte toByte(Integer value) {
+        return value == null ? -1 : value.byteValue();
+    }
+
+    private static Integer toInteger(byte value, int min, int max, String name) {
+
+        if (value == -1) {
+            return null;
+        }
+        if (value < min || value > max) {
+            throw new IllegalArgumentException("Invalid " + name + " of score card: " + value);
+        }
+        return (int) value;
+    }
+}
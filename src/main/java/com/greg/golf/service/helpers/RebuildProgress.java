@@ -0,0 +1,48 @@
+package com.greg.golf.service.helpers;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// progress of tournament results rebuild, updated by scoring threads and read by clients
+public class RebuildProgress {
+
+    public static final String STATUS_LOADING = "LOADING";
+    public static final String STATUS_SCORING = "SCORING";
+    public static final String STATUS_SAVING = "SAVING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final AtomicInteger processedRounds = new AtomicInteger();
+
+    @Getter
+    private volatile String status = STATUS_LOADING;
+
+    @Getter
+    private volatile int totalRounds;
+
+    public void startScoring(int totalRounds) {
+        this.totalRounds = totalRounds;
+        status = STATUS_SCORING;
+    }
+
+    public void startSaving() {
+        status = STATUS_SAVING;
+    }
+
+    public void finish(boolean success) {
+        status = success ? STATUS_DONE : STATUS_FAILED;
+    }
+
+    public void roundProcessed() {
+        processedRounds.incrementAndGet();
+    }
+
+    public int getProcessedRounds() {
+        return processedRounds.get();
+    }
+
+    public boolean isRunning() {
+        return !STATUS_DONE.equals(status) && !STATUS_FAILED.equals(status);
+    }
+}
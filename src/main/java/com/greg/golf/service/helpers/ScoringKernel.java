@@ -0,0 +1,79 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.entity.helpers.Common;
+import lombok.Getter;
+
+// primitive scoring of one 18 holes round for one player
+// all arrays are indexed by hole number - 1, nothing is allocated during calculation
+public class ScoringKernel {
+
+    public static final int HOLES = 18;
+
+    private ScoringKernel() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    // course handicap for player handicap and tee ratings
+    public static int courseHcp(float playerHcp, float cr, int sr, int coursePar) {
+
+        return Math.round(playerHcp * sr / 113 + cr - coursePar);
+    }
+
+    // handicap strokes received on the hole with given stroke index
+    public static int holeHcp(int courseHcp, int si) {
+
+        int hcpAll = (int) Math.floor((double) courseHcp / HOLES);
+        int hcpIncMaxHole = courseHcp - (hcpAll * HOLES);
+
+        return (hcpIncMaxHole > 0 && si <= hcpIncMaxHole) ? hcpAll + 1 : hcpAll;
+    }
+
+    // calculates STB net/gross, gross, net and corrected strokes and score differential in one pass
+    // cr and sr are ratings used for score differential
+    @SuppressWarnings("java:S107")
+    public static void score(int[] strokes, int[] par, int[] si, int courseHcp, float cr, int sr, Result result) {
+
+        int stbNet = 0;
+        int stbGross = 0;
+        int grossStrokes = 0;
+        int correctedStrokes = 0;
+        boolean strokeApplicable = true;
+
+        for (int i = 0; i < HOLES; i++) {
+
+            int stroke = strokes[i];
+            int hcp = holeHcp(courseHcp, si[i]);
+
+            stbNet += Math.max(par[i] - (stroke - hcp) + 2, 0);
+            stbGross += Math.max(par[i] - stroke + 2, 0);
+            grossStrokes += stroke;
+            correctedStrokes += Math.min(stroke, hcp + 2 + par[i]);
+
+            // 16 means that hole has been given up
+            if (stroke >= Common.HOLE_GIVEN_UP) {
+                strokeApplicable = false;
+            }
+        }
+
+        result.stbNet = stbNet;
+        result.stbGross = stbGross;
+        result.grossStrokes = grossStrokes;
+        result.netStrokes = Math.max(grossStrokes - courseHcp, 0);
+        result.correctedStrokes = correctedStrokes;
+        result.scoreDifferential = (113 / (float) sr) * (correctedStrokes - cr);
+        result.strokeApplicable = strokeApplicable;
+    }
+
+    // mutable holder, can be reused between calls
+    @Getter
+    public static class Result {
+
+        private int stbNet;
+        private int stbGross;
+        private int grossStrokes;
+        private int netStrokes;
+        private int correctedStrokes;
+        private float scoreDifferential;
+        private boolean strokeApplicable;
+    }
+}
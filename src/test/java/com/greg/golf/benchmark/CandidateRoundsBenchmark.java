@@ -0,0 +1,154 @@
+package com.greg.golf.benchmark;
+
+import com.greg.golf.util.GolfPostgresqlContainer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// compares finding rounds applicable for tournament with one query per round (as TournamentService did before)
+// and one set based query, for the window of several thousands rounds, requires docker
+// run with: mvn -Pbenchmark -DskipTests verify -Dbenchmark=CandidateRoundsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandidateRoundsBenchmark {
+
+    private static final int ROUNDS = 5000;
+    private static final int PLAYERS = 500;
+    private static final int TOURNAMENT_PLAYERS = 40;
+    private static final long TOURNAMENT_ID = 1;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private Connection connection;
+    private Timestamp startDate;
+    private Timestamp endDate;
+
+    @Setup
+    public void setup() throws SQLException {
+
+        var container = GolfPostgresqlContainer.getInstance();
+        container.start();
+        connection = DriverManager.getConnection(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+
+        try (var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE round (id BIGINT PRIMARY KEY, round_date TIMESTAMP WITH TIME ZONE)");
+            statement.execute("CREATE TABLE player_round (id SERIAL PRIMARY KEY, player_id INT, round_id INT, tournament_id INT8)");
+            statement.execute("CREATE TABLE tournament_player (id SERIAL PRIMARY KEY, tournament_id INT, player_id INT)");
+            statement.execute("CREATE INDEX round_date_idx ON round (round_date)");
+            statement.execute("CREATE INDEX player_round_round_idx ON player_round (round_id, player_id)");
+            statement.execute("CREATE UNIQUE INDEX tour_player_id ON tournament_player (player_id, tournament_id)");
+        }
+
+        // rounds are spread over one year, tournament lasts for two months
+        var random = new Random(1);
+        long now = System.currentTimeMillis();
+        try (var round = connection.prepareStatement("INSERT INTO round (id, round_date) VALUES (?, ?)");
+             var playerRound = connection.prepareStatement("INSERT INTO player_round (player_id, round_id, tournament_id) VALUES (?, ?, ?)")) {
+            for (var i = 1; i <= ROUNDS * 6; i++) {
+                round.setLong(1, i);
+                round.setTimestamp(2, new Timestamp(now - random.nextInt(365) * DAY));
+                round.addBatch();
+                for (var p = 0; p < 1 + random.nextInt(4); p++) {
+                    playerRound.setInt(1, 1 + random.nextInt(PLAYERS));
+                    playerRound.setInt(2, i);
+                    if (random.nextInt(10) == 0) {
+                        playerRound.setLong(3, TOURNAMENT_ID);
+                    } else {
+                        playerRound.setNull(3, Types.BIGINT);
+                    }
+                    playerRound.addBatch();
+                }
+            }
+            round.executeBatch();
+            playerRound.executeBatch();
+        }
+        try (var tournamentPlayer = connection.prepareStatement("INSERT INTO tournament_player (tournament_id, player_id) VALUES (?, ?)")) {
+            for (var p = 1; p <= TOURNAMENT_PLAYERS; p++) {
+                tournamentPlayer.setLong(1, TOURNAMENT_ID);
+                tournamentPlayer.setInt(2, p);
+                tournamentPlayer.addBatch();
+            }
+            tournamentPlayer.executeBatch();
+        }
+        try (var statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+
+        startDate = new Timestamp(now - 60 * DAY);
+        endDate = new Timestamp(now);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void perRound(Blackhole blackhole) throws SQLException {
+
+        var tournamentPlayers = new ArrayList<Long>();
+        try (var ps = connection.prepareStatement("SELECT player_id FROM tournament_player WHERE tournament_id = ?")) {
+            ps.setLong(1, TOURNAMENT_ID);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    tournamentPlayers.add(rs.getLong(1));
+                }
+            }
+        }
+
+        var rounds = new ArrayList<Long>();
+        try (var ps = connection.prepareStatement("SELECT id FROM round WHERE round_date BETWEEN ? AND ?")) {
+            ps.setTimestamp(1, startDate);
+            ps.setTimestamp(2, endDate);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rounds.add(rs.getLong(1));
+                }
+            }
+        }
+
+        try (var ps = connection.prepareStatement("SELECT player_id, tournament_id FROM player_round WHERE round_id = ? ORDER BY player_id")) {
+            for (var roundId : rounds) {
+                ps.setLong(1, roundId);
+                List<Long> players = new ArrayList<>();
+                try (var rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong(2);
+                        if (rs.wasNull()) {
+                            players.add(rs.getLong(1));
+                        }
+                    }
+                }
+                if (!Collections.disjoint(tournamentPlayers, players)) {
+                    blackhole.consume(roundId);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void setBased(Blackhole blackhole) throws SQLException {
+
+        try (var ps = connection.prepareStatement("SELECT r.id FROM round r WHERE r.round_date BETWEEN ? AND ? AND EXISTS " +
+                "(SELECT 1 FROM player_round pr JOIN tournament_player tp ON tp.player_id = pr.player_id " +
+                "WHERE pr.round_id = r.id AND pr.tournament_id IS NULL AND tp.tournament_id = ?) ORDER BY r.round_date")) {
+            ps.setTimestamp(1, startDate);
+            ps.setTimestamp(2, endDate);
+            ps.setLong(3, TOURNAMENT_ID);
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(1));
+                }
+            }
+        }
+    }
+}
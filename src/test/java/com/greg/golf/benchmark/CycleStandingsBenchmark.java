@@ -0,0 +1,91 @@
+package com.greg.golf.benchmark;
+
+import com.greg.golf.entity.CycleResult;
+import com.greg.golf.service.helpers.CycleStandings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// compares boxed sorting of all results used by CycleService before with primitive top-K standings
+// for adding one tournament to the cycle and recalculation of all players
+// run with: mvn -Pbenchmark -DskipTests verify -Dbenchmark=CycleStandingsBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CycleStandingsBenchmark {
+
+    private static final int ROUNDS_PER_TOURNAMENT = 4;
+    private static final int TOURNAMENTS = 20;
+
+    @Param({"200", "5000"})
+    private int players;
+
+    @Param({"10"})
+    private int bestRounds;
+
+    private List<CycleResult> cycleResults;
+    private int[][] tournamentResults;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+
+        var random = new Random(1);
+        cycleResults = new ArrayList<>();
+        tournamentResults = new int[players][];
+        for (var p = 0; p < players; p++) {
+            var cycleResult = new CycleResult();
+            cycleResult.setResults(random.ints(TOURNAMENTS * ROUNDS_PER_TOURNAMENT, 0, 45).toArray());
+            cycleResults.add(cycleResult);
+            tournamentResults[p] = random.ints(ROUNDS_PER_TOURNAMENT, 0, 45).toArray();
+        }
+    }
+
+    @Benchmark
+    public void streams(Blackhole blackhole) {
+
+        for (var p = 0; p < players; p++) {
+            var cycleResult = cycleResults.get(p);
+            cycleResult.setResults(IntStream.concat(Arrays.stream(cycleResult.getResults()),
+                    Arrays.stream(tournamentResults[p])).toArray());
+        }
+
+        cycleResults.forEach(cycleResult -> {
+            cycleResult.setCycleScore(
+                    Arrays.stream(cycleResult.getResults())
+                            .boxed()
+                            .sorted(Comparator.reverseOrder())
+                            .limit(bestRounds)
+                            .reduce(0, Integer::sum)
+            );
+            cycleResult.setTotal(
+                    Arrays.stream(cycleResult.getResults())
+                            .reduce(0, Integer::sum)
+            );
+        });
+
+        blackhole.consume(cycleResults);
+    }
+
+    @Benchmark
+    public void primitiveTopK(Blackhole blackhole) {
+
+        for (var p = 0; p < players; p++) {
+            var cycleResult = cycleResults.get(p);
+            cycleResult.setResults(CycleStandings.append(cycleResult.getResults(), tournamentResults[p]));
+        }
+
+        CycleStandings.update(cycleResults, bestRounds);
+
+        blackhole.consume(cycleResults);
+    }
+}
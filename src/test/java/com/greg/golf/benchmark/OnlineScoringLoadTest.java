@@ -0,0 +1,359 @@
+package com.greg.golf.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.controller.dto.PlayerDto;
+import com.greg.golf.entity.Course;
+import com.greg.golf.entity.CourseTee;
+import com.greg.golf.entity.OnlineRound;
+import com.greg.golf.entity.Player;
+import com.greg.golf.repository.OnlineRoundRepository;
+import com.greg.golf.security.JwtTokenUtil;
+import com.greg.golf.service.OnlineRoundService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
+import com.greg.golf.service.helpers.OnlineScoreCardCodec;
+import com.greg.golf.util.GolfPostgresqlContainer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.ClassRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// load harness of /websocket/onlinescorecard against the embedded application and testcontainers postgres
+// scorers send hole results of their own online round and wait for the receipt before the next hole,
+// spectators are spread over the online rounds and measure latency from sending the hole to its delivery
+// client and server share the jvm, so heap use includes the clients
+// run with: mvn -Ploadtest test -Dloadtest.scorers=50 -Dloadtest.spectators=200 -Dloadtest.laps=3 -Dloadtest.binary=false
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtest.enabled", matches = "true")
+class OnlineScoringLoadTest {
+
+    private static final long OWNER = 1L;
+    private static final int HOLES = 18;
+    private static final long TIMEOUT = 60;
+
+    @ClassRule
+    public static PostgreSQLContainer<GolfPostgresqlContainer> postgreSQLContainer = GolfPostgresqlContainer.getInstance();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private OnlineRoundRepository onlineRoundRepository;
+
+    @Autowired
+    private OnlineRoundService onlineRoundService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int scorers = Integer.getInteger("loadtest.scorers", 50);
+    private final int spectators = Integer.getInteger("loadtest.spectators", 200);
+    private final int laps = Integer.getInteger("loadtest.laps", 3);
+    private final boolean binary = Boolean.getBoolean("loadtest.binary");
+
+    // send time of the hole result by online round, hole and stroke
+    private final Map<Long, Long> sent = new ConcurrentHashMap<>();
+    private final Recorder deliveryLatency = new Recorder();
+    private final Recorder receiptLatency = new Recorder();
+    private final AtomicLong unknown = new AtomicLong();
+
+    private final List<StompSession> sessions = new ArrayList<>();
+    private WebSocketStompClient stompClient;
+    private ThreadPoolTaskScheduler scheduler;
+
+    @AfterEach
+    void teardown() {
+
+        sessions.forEach(StompSession::disconnect);
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        onlineRoundService.deleteForOwner(OWNER);
+    }
+
+    @DisplayName("Online scoring under concurrent scorers and spectators")
+    @Test
+    void onlineScoringLoadTest() throws Exception {
+
+        var onlineRounds = createOnlineRounds();
+
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("loadtest-");
+        scheduler.initialize();
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setTaskScheduler(scheduler);
+
+        var token = jwtTokenUtil.generateToken(String.valueOf(OWNER));
+
+        // all subscriptions are registered before the first hole is sent
+        var subscribed = new ArrayList<CompletableFuture<?>>();
+        for (var i = 0; i < spectators; i++) {
+            var session = connect(token);
+            var receipt = new CompletableFuture<Void>();
+            var destination = (binary ? OnlineScoreCardPublisher.BINARY_ROUND_DESTINATION
+                    : OnlineScoreCardPublisher.ROUND_DESTINATION) + onlineRounds.get(i % scorers).getId();
+            session.subscribe(destination, new Spectator()).addReceiptTask(() -> receipt.complete(null));
+            subscribed.add(receipt);
+        }
+        CompletableFuture.allOf(subscribed.toArray(CompletableFuture[]::new)).get(TIMEOUT, TimeUnit.SECONDS);
+
+        var scorerSessions = new ArrayList<StompSession>();
+        for (var i = 0; i < scorers; i++) {
+            scorerSessions.add(connect(token));
+        }
+
+        var memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        var heapBefore = memory.getHeapMemoryUsage().getUsed();
+        var heapPeak = new AtomicLong(heapBefore);
+        var sampler = scheduler.getScheduledExecutor().scheduleAtFixedRate(
+                () -> heapPeak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, 100, TimeUnit.MILLISECONDS);
+
+        var expected = (long) spectators * laps * HOLES;
+        var start = System.nanoTime();
+        var executor = Executors.newFixedThreadPool(scorers);
+        try {
+            var scoring = new ArrayList<CompletableFuture<Void>>();
+            for (var i = 0; i < scorers; i++) {
+                var session = scorerSessions.get(i);
+                var onlineRoundId = onlineRounds.get(i).getId();
+                scoring.add(CompletableFuture.runAsync(() -> score(session, onlineRoundId), executor));
+            }
+            CompletableFuture.allOf(scoring.toArray(CompletableFuture[]::new)).get(TIMEOUT, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        var scored = System.nanoTime();
+
+        // deliveries of the last holes may still be on their way
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+        while (deliveryLatency.count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        var delivered = System.nanoTime();
+        sampler.cancel(false);
+        System.gc();
+        var heapAfter = memory.getHeapMemoryUsage().getUsed();
+
+        var updates = (long) scorers * laps * HOLES;
+        log.info("Online scoring load: " + scorers + " scorers, " + spectators + " spectators, "
+                + laps + " laps, " + (binary ? "binary" : "json") + " layout");
+        log.info("Hole updates: " + updates + " in " + millis(scored - start) + " ms, "
+                + perSecond(updates, scored - start) + " updates/s");
+        log.info("Deliveries: " + deliveryLatency.count() + " of " + expected + " in " + millis(delivered - start)
+                + " ms, " + perSecond(deliveryLatency.count(), delivered - start) + " deliveries/s, unknown "
+                + unknown.get());
+        log.info("End-to-end latency: " + deliveryLatency);
+        log.info("Receipt latency: " + receiptLatency);
+        log.info("Heap: before " + mb(heapBefore) + " MB, peak " + mb(heapPeak.get()) + " MB, after "
+                + mb(heapAfter) + " MB");
+
+        Assertions.assertEquals(updates, receiptLatency.count());
+        Assertions.assertEquals(expected, deliveryLatency.count());
+    }
+
+    private List<OnlineRound> createOnlineRounds() {
+
+        var course = new Course();
+        course.setId(1L);
+        var courseTee = new CourseTee();
+        courseTee.setId(1L);
+        var player = new Player();
+        player.setId(OWNER);
+
+        var onlineRounds = new ArrayList<OnlineRound>();
+        for (var i = 0; i < scorers; i++) {
+            var onlineRound = new OnlineRound();
+            onlineRound.setCourse(course);
+            onlineRound.setCourseTee(courseTee);
+            onlineRound.setPlayer(player);
+            onlineRound.setDate(new Date());
+            onlineRound.setTeeTime("10:00");
+            onlineRound.setOwner(OWNER);
+            onlineRound.setFinalized(false);
+            onlineRound.setMatchPlay(false);
+            onlineRounds.add(onlineRound);
+        }
+        return onlineRoundRepository.saveAll(onlineRounds);
+    }
+
+    private StompSession connect(String token) throws Exception {
+
+        var session = stompClient.connectAsync("ws://localhost:{port}/websocket/onlinescorecard?token={token}",
+                new StompSessionHandlerAdapter() {
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        log.error("Transport error: " + exception.getMessage());
+                    }
+                }, port, token).get(TIMEOUT, TimeUnit.SECONDS);
+        session.setAutoReceipt(true);
+        sessions.add(session);
+        return session;
+    }
+
+    // stroke differs between laps, so the hole result of every lap has its own key
+    private void score(StompSession session, long onlineRoundId) {
+
+        var player = new PlayerDto();
+        player.setId(OWNER);
+
+        for (var lap = 0; lap < laps; lap++) {
+            for (var hole = 1; hole <= HOLES; hole++) {
+                var onlineScoreCard = new OnlineScoreCardDto();
+                onlineScoreCard.setOrId(onlineRoundId);
+                onlineScoreCard.setPlayer(player);
+                onlineScoreCard.setHole(hole);
+                onlineScoreCard.setStroke(lap % 10 + 3);
+                onlineScoreCard.setPutt(2);
+                onlineScoreCard.setUpdate(lap > 0);
+                onlineScoreCard.setTime("10:00");
+
+                var headers = new StompHeaders();
+                headers.setDestination("/app/hole");
+                byte[] payload;
+                if (binary) {
+                    headers.setContentType(OnlineScoreCardCodec.MIME_TYPE);
+                    payload = OnlineScoreCardCodec.encode(onlineScoreCard);
+                } else {
+                    headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+                    payload = toJson(onlineScoreCard);
+                }
+
+                var receipt = new CompletableFuture<Void>();
+                var start = System.nanoTime();
+                sent.put(key(onlineScoreCard), start);
+                session.send(headers, payload).addReceiptTask(() -> {
+                    receiptLatency.record(System.nanoTime() - start);
+                    receipt.complete(null);
+                });
+                receipt.join();
+            }
+        }
+    }
+
+    private byte[] toJson(OnlineScoreCardDto onlineScoreCard) {
+
+        try {
+            return objectMapper.writeValueAsBytes(onlineScoreCard);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long key(OnlineScoreCardDto onlineScoreCard) {
+        return onlineScoreCard.getOrId() << 16 | (long) onlineScoreCard.getHole() << 8 | onlineScoreCard.getStroke();
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    private static long mb(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    // the first frame of the subscription is the snapshot of the online round and is not measured
+    private class Spectator implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+
+            var received = System.nanoTime();
+            if (headers.containsKey("snapshot")) {
+                return;
+            }
+            try {
+                var bytes = (byte[]) payload;
+                var onlineScoreCard = binary ? OnlineScoreCardCodec.decode(bytes)
+                        : objectMapper.readValue(bytes, OnlineScoreCardDto.class);
+                var start = sent.get(key(onlineScoreCard));
+                if (start == null) {
+                    unknown.incrementAndGet();
+                } else {
+                    deliveryLatency.record(received - start);
+                }
+            } catch (Exception e) {
+                log.error("Unable to read score card: " + e.getMessage());
+            }
+        }
+    }
+
+    // all samples are kept, runs of the harness are small enough to sort them for exact percentiles
+    private static class Recorder {
+
+        private long[] samples = new long[1024];
+        private int count;
+
+        synchronized void record(long nanos) {
+
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        @Override
+        public synchronized String toString() {
+
+            if (count == 0) {
+                return "no samples";
+            }
+            var sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return "p50 " + micros(sorted, 0.5) + " us, p99 " + micros(sorted, 0.99) + " us, p999 "
+                    + micros(sorted, 0.999) + " us, max " + sorted[count - 1] / 1000 + " us";
+        }
+
+        private static long micros(long[] sorted, double percentile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1000;
+        }
+    }
+}
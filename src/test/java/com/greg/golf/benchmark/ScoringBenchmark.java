@@ -0,0 +1,157 @@
+package com.greg.golf.benchmark;
+
+import com.greg.golf.entity.*;
+import com.greg.golf.entity.helpers.Common;
+import com.greg.golf.service.helpers.ScoringKernel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+// compares stream based scoring used by TournamentService before and the primitive scoring kernel
+// run with: mvn -Pbenchmark -DskipTests verify -Dbenchmark=ScoringBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private static final int PLAYERS = 4;
+    private static final float PLAYER_HCP = 18.4f;
+    private static final float CR = 70.3f;
+    private static final int SR = 135;
+
+    private Round round;
+    private List<Player> players;
+    private int[] par;
+    private int[] si;
+    private int[][] strokes;
+    private final ScoringKernel.Result result = new ScoringKernel.Result();
+
+    @Setup
+    public void setup() {
+
+        var random = new Random(1);
+        var course = new Course();
+        course.setPar(72);
+        strokes = new int[PLAYERS][ScoringKernel.HOLES];
+        par = new int[ScoringKernel.HOLES];
+        si = new int[ScoringKernel.HOLES];
+        for (var i = 0; i < ScoringKernel.HOLES; i++) {
+            var hole = new Hole();
+            hole.setNumber(i + 1);
+            hole.setPar(4);
+            hole.setSi((i * 7) % ScoringKernel.HOLES + 1);
+            course.getHoles().add(hole);
+            par[i] = hole.getPar();
+            si[i] = hole.getSi();
+        }
+
+        round = new Round();
+        round.setCourse(course);
+        round.setPlayer(new TreeSet<>());
+        players = new ArrayList<>();
+        for (var p = 0; p < PLAYERS; p++) {
+            var player = new Player();
+            player.setId((long) p + 1);
+            players.add(player);
+            for (var i = 0; i < ScoringKernel.HOLES; i++) {
+                var scoreCard = new ScoreCard();
+                scoreCard.setHole(i + 1);
+                scoreCard.setPlayer(player);
+                scoreCard.setStroke(3 + random.nextInt(5));
+                round.getScoreCard().add(scoreCard);
+            }
+        }
+    }
+
+    @Benchmark
+    public void streams(Blackhole blackhole) {
+
+        for (var player : players) {
+            int courseHcp = ScoringKernel.courseHcp(PLAYER_HCP, CR, SR, round.getCourse().getPar());
+            blackhole.consume(updateSTB(player, courseHcp));
+            boolean strokeApplicable = applicableForStroke(player);
+            blackhole.consume(strokeApplicable);
+            int gross = getGrossStrokes(player);
+            blackhole.consume(Math.max(gross - courseHcp, 0));
+            blackhole.consume((113 / (float) SR) * (getCorrectedStrokes(player) - CR));
+        }
+    }
+
+    @Benchmark
+    public void kernel(Blackhole blackhole) {
+
+        // strokes are collected once per round
+        for (var scoreCard : round.getScoreCard()) {
+            strokes[(int) (scoreCard.getPlayer().getId() - 1)][scoreCard.getHole() - 1] = scoreCard.getStroke();
+        }
+
+        for (var p = 0; p < PLAYERS; p++) {
+            int courseHcp = ScoringKernel.courseHcp(PLAYER_HCP, CR, SR, round.getCourse().getPar());
+            ScoringKernel.score(strokes[p], par, si, courseHcp, CR, SR, result);
+            blackhole.consume(result.getStbNet());
+            blackhole.consume(result.getScoreDifferential());
+        }
+    }
+
+    // the code below reflects stream based calculation from TournamentService
+    private List<Integer> updateSTB(Player player, int courseHCP) {
+
+        List<Integer> retStb = new ArrayList<>();
+        int hcpAll = (int) Math.floor((double) courseHCP / 18);
+        int hcpIncMaxHole = courseHCP - (hcpAll * 18);
+        round.getScoreCard().forEach(scoreCard -> scoreCard.setHcp(hcpAll));
+        List<Hole> holes = round.getCourse().getHoles();
+        List<ScoreCard> playerScoreCard = round.getScoreCard()
+                .stream()
+                .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .toList();
+        playerScoreCard.forEach(scoreCard -> {
+            if (hcpIncMaxHole > 0 && holes.get(scoreCard.getHole() - 1).getSi() <= hcpIncMaxHole) {
+                scoreCard.setHcp(hcpAll + 1);
+            }
+            scoreCard.setStbNet(
+                    holes.get(scoreCard.getHole() - 1).getPar() - (scoreCard.getStroke() - scoreCard.getHcp()) + 2);
+            if (scoreCard.getStbNet() < 0) {
+                scoreCard.setStbNet(0);
+            }
+            scoreCard.setStbGross(holes.get(scoreCard.getHole() - 1).getPar() - scoreCard.getStroke() + 2);
+            if (scoreCard.getStbGross() < 0) {
+                scoreCard.setStbGross(0);
+            }
+        });
+        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbNet).sum());
+        retStb.add(playerScoreCard.stream().mapToInt(ScoreCard::getStbGross).sum());
+        return retStb;
+    }
+
+    private boolean applicableForStroke(Player player) {
+
+        return round.getScoreCard()
+                .stream()
+                .filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .noneMatch(scoreCard -> scoreCard.getStroke() >= Common.HOLE_GIVEN_UP);
+    }
+
+    private int getGrossStrokes(Player player) {
+
+        return round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .mapToInt(ScoreCard::getStroke).sum();
+    }
+
+    private int getCorrectedStrokes(Player player) {
+
+        List<Hole> holes = round.getCourse().getHoles();
+        return round.getScoreCard().stream().filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+                .mapToInt(scoreCard -> Math.min(scoreCard.getStroke(),
+                        scoreCard.getHcp() + 2 + holes.get(scoreCard.getHole() - 1).getPar()))
+                .sum();
+    }
+}
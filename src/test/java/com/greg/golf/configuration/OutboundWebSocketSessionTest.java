@@ -0,0 +1,227 @@
+package com.greg.golf.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+@Slf4j
+class OutboundWebSocketSessionTest {
+
+	private WebSocketSession delegate;
+	private List<Runnable> tasks;
+	private OutboundSessions.Metrics metrics;
+
+	@BeforeEach
+	void setup() {
+
+		delegate = Mockito.mock(WebSocketSession.class);
+		when(delegate.getId()).thenReturn("1");
+		tasks = new ArrayList<>();
+		var meterRegistry = new SimpleMeterRegistry();
+		metrics = new OutboundSessions.Metrics(meterRegistry.counter("dropped"), meterRegistry.counter("coalesced"),
+				meterRegistry.counter("terminated"));
+	}
+
+	@DisplayName("Should replace queued score card of the same hole")
+	@Test
+	void coalesceTest() throws Exception {
+
+		var session = session(1000, OutboundWebSocketSession.OverflowPolicy.COALESCE);
+
+		session.sendMessage(scoreCard("/topic/round/1", 1, 1, 5));
+		session.sendMessage(scoreCard("/topic/round/1", 1, 2, 4));
+		session.sendMessage(scoreCard("/topic/round/1", 1, 1, 3));
+
+		Assertions.assertEquals(2, session.getQueueDepth());
+		Assertions.assertEquals(1, tasks.size());
+		Assertions.assertEquals(1.0, metrics.coalesced().count());
+
+		tasks.get(0).run();
+
+		var sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+		verify(delegate, times(2)).sendMessage(sent.capture());
+		Assertions.assertTrue(((String) sent.getAllValues().get(0).getPayload()).contains("\"stroke\":3"));
+		Assertions.assertEquals(0, session.getQueueDepth());
+		Assertions.assertEquals(0, session.getBufferSize());
+	}
+
+	@DisplayName("Should drop the oldest messages when buffer is full")
+	@Test
+	void dropOldestTest() throws Exception {
+
+		var message = scoreCard("/topic/round/1", 1, 1, 5);
+		var session = session(message.getPayloadLength() * 2, OutboundWebSocketSession.OverflowPolicy.DROP_OLDEST);
+
+		session.sendMessage(message);
+		session.sendMessage(scoreCard("/topic/round/1", 1, 2, 5));
+		session.sendMessage(scoreCard("/topic/round/1", 1, 3, 5));
+
+		Assertions.assertEquals(2, session.getQueueDepth());
+		Assertions.assertEquals(1.0, metrics.dropped().count());
+		verify(delegate, never()).close(any());
+	}
+
+	@DisplayName("Should drop score cards but not receipts when buffer is full")
+	@Test
+	void keepReceiptTest() throws Exception {
+
+		var message = scoreCard("/topic/round/1", 1, 1, 5);
+		var receipt = new TextMessage("RECEIPT\nreceipt-id:1\n\n\u0000");
+		var session = session(message.getPayloadLength() + receipt.getPayloadLength(),
+				OutboundWebSocketSession.OverflowPolicy.DROP_OLDEST);
+
+		session.sendMessage(receipt);
+		session.sendMessage(message);
+		session.sendMessage(scoreCard("/topic/round/1", 1, 2, 5));
+
+		Assertions.assertEquals(2, session.getQueueDepth());
+		Assertions.assertEquals(1.0, metrics.dropped().count());
+
+		tasks.get(0).run();
+		var sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+		verify(delegate, times(2)).sendMessage(sent.capture());
+		Assertions.assertSame(receipt, sent.getAllValues().get(0));
+	}
+
+	@DisplayName("Should close the session when only frames that cannot be dropped remain")
+	@Test
+	void nothingToDropTest() throws Exception {
+
+		var receipt = new TextMessage("RECEIPT\nreceipt-id:1\n\n\u0000");
+		var session = session(receipt.getPayloadLength(), OutboundWebSocketSession.OverflowPolicy.COALESCE);
+
+		session.sendMessage(receipt);
+		session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:2\n\n\u0000"));
+
+		verify(delegate, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+		Assertions.assertEquals(0.0, metrics.dropped().count());
+	}
+
+	@DisplayName("Should drop only score cards which are not snapshots")
+	@Test
+	void droppableTest() {
+
+		Assertions.assertTrue(OutboundWebSocketSession.isDroppable(scoreCard("/topic/course/1", 1, 1, 5)));
+		Assertions.assertTrue(OutboundWebSocketSession.isDroppable(new BinaryMessage(
+				"MESSAGE\ndestination:/topic/binary/round/1\n\n\u0001\u0000".getBytes(StandardCharsets.UTF_8))));
+		Assertions.assertFalse(OutboundWebSocketSession.isDroppable(
+				new TextMessage("MESSAGE\ndestination:/topic/round/1\nsnapshot:true\n\n[]\u0000")));
+		Assertions.assertFalse(OutboundWebSocketSession.isDroppable(
+				new TextMessage("MESSAGE\ndestination:/topic/tournament/1\n\n{}\u0000")));
+		Assertions.assertFalse(OutboundWebSocketSession.isDroppable(new TextMessage("CONNECTED\n\n\u0000")));
+	}
+
+	@DisplayName("Should close the session when buffer is full")
+	@Test
+	void terminateTest() throws Exception {
+
+		var message = scoreCard("/topic/round/1", 1, 1, 5);
+		var session = session(message.getPayloadLength(), OutboundWebSocketSession.OverflowPolicy.TERMINATE);
+
+		session.sendMessage(message);
+		session.sendMessage(scoreCard("/topic/round/1", 1, 2, 5));
+		session.sendMessage(scoreCard("/topic/round/1", 1, 3, 5));
+
+		verify(delegate, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+		Assertions.assertEquals(0, session.getQueueDepth());
+		Assertions.assertEquals(1.0, metrics.terminated().count());
+	}
+
+	@DisplayName("Should close the session blocked in send longer than the time limit")
+	@Test
+	void blockedSendTest() throws Exception {
+
+		var sending = new CountDownLatch(1);
+		var released = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			sending.countDown();
+			released.await(10, TimeUnit.SECONDS);
+			return null;
+		}).when(delegate).sendMessage(any());
+		// closing the session aborts the blocked send
+		doAnswer(invocation -> {
+			released.countDown();
+			return null;
+		}).when(delegate).close(any());
+
+		var session = session(1000, OutboundWebSocketSession.OverflowPolicy.COALESCE);
+		session.sendMessage(scoreCard("/topic/round/1", 1, 1, 5));
+		session.sendMessage(scoreCard("/topic/round/1", 1, 2, 5));
+
+		var outbound = new Thread(tasks.get(0));
+		outbound.start();
+		Assertions.assertTrue(sending.await(10, TimeUnit.SECONDS));
+
+		session.checkSendTime(System.currentTimeMillis());
+		verify(delegate, never()).close(any());
+
+		session.checkSendTime(System.currentTimeMillis() + 2000);
+		outbound.join(10000);
+
+		Assertions.assertFalse(outbound.isAlive());
+		verify(delegate, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+		verify(delegate, times(1)).sendMessage(any());
+		Assertions.assertEquals(1.0, metrics.terminated().count());
+	}
+
+	@DisplayName("Should yield the thread after the drain limit")
+	@Test
+	void drainLimitTest() throws Exception {
+
+		var session = session(100000, OutboundWebSocketSession.OverflowPolicy.COALESCE);
+		for (var hole = 1; hole <= OutboundWebSocketSession.DRAIN_LIMIT + 2; hole++) {
+			session.sendMessage(scoreCard("/topic/round/1", 1, hole, 5));
+		}
+
+		tasks.get(0).run();
+		verify(delegate, times(OutboundWebSocketSession.DRAIN_LIMIT)).sendMessage(any());
+		Assertions.assertEquals(2, session.getQueueDepth());
+		Assertions.assertEquals(2, tasks.size());
+
+		tasks.get(1).run();
+		verify(delegate, times(OutboundWebSocketSession.DRAIN_LIMIT + 2)).sendMessage(any());
+		Assertions.assertEquals(0, session.getQueueDepth());
+	}
+
+	@DisplayName("Should return coalesce key only for score cards")
+	@Test
+	void coalesceKeyTest() {
+
+		Assertions.assertEquals("/topic/round/1|7|3",
+				OutboundWebSocketSession.coalesceKey(scoreCard("/topic/round/1", 7, 3, 5)));
+		Assertions.assertNull(OutboundWebSocketSession.coalesceKey(
+				new TextMessage("MESSAGE\ndestination:/topic/tournament/1\n\n{\"sequence\":1}\u0000")));
+		Assertions.assertNull(OutboundWebSocketSession.coalesceKey(new TextMessage("CONNECTED\n\n\u0000")));
+		Assertions.assertNull(OutboundWebSocketSession.coalesceKey(new TextMessage(
+				"MESSAGE\ndestination:/topic/round/1\nsnapshot:true\n\n[{\"hole\":3,\"orId\":7}]\u0000")));
+		Assertions.assertNull(OutboundWebSocketSession.coalesceKey(new TextMessage(
+				"MESSAGE\ndestination:/topic/round/1\n\n[{\"hole\":3,\"orId\":7}]\u0000")));
+	}
+
+	private OutboundWebSocketSession session(int bufferSizeLimit, OutboundWebSocketSession.OverflowPolicy policy) {
+		return new OutboundWebSocketSession(delegate, 1000, bufferSizeLimit, policy, tasks::add, metrics);
+	}
+
+	private TextMessage scoreCard(String destination, long orId, int hole, int stroke) {
+		return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n\n" +
+				"{\"id\":null,\"hole\":" + hole + ",\"stroke\":" + stroke + ",\"putt\":0,\"penalty\":0,\"orId\":" + orId + "}\u0000");
+	}
+}
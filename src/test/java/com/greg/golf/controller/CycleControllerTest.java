@@ -5,12 +5,14 @@ import com.greg.golf.controller.dto.CycleDto;
 import com.greg.golf.controller.dto.CycleTournamentDto;
 import com.greg.golf.entity.Cycle;
 import com.greg.golf.entity.CycleResult;
+import com.greg.golf.entity.CycleStanding;
 import com.greg.golf.entity.CycleTournament;
 import com.greg.golf.security.JwtAuthenticationEntryPoint;
 import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.security.oauth.GolfAuthenticationFailureHandler;
 import com.greg.golf.security.oauth.GolfAuthenticationSuccessHandler;
 import com.greg.golf.security.oauth.GolfOAuth2UserService;
+import com.greg.golf.service.CycleImportService;
 import com.greg.golf.service.CycleService;
 import com.greg.golf.service.PlayerService;
 import com.greg.golf.service.UserService;
@@ -30,8 +32,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.ArrayList;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -55,6 +60,9 @@ class CycleControllerTest {
 	@MockBean
 	private CycleService cycleService;
 
+	@MockBean
+	private CycleImportService cycleImportService;
+
 	@MockBean
 	private ModelMapper modelMapper;
 
@@ -122,6 +130,18 @@ class CycleControllerTest {
 				.content(objectMapper.writeValueAsString(input))).andExpect(status().isOk()).andReturn();
 	}
 
+	@DisplayName("Should import cycle tournament from streamed Eagle results")
+	@Test
+	void importCycleTournamentWhenValidInputThenReturns200() throws Exception {
+
+		mockMvc.perform(post("/rest/CycleTournamentImport/1").param("name", "Test cycle tournament").param("rounds", "1")
+				.contentType("application/json").characterEncoding("utf-8")
+				.content("{\"items\":[{\"firstName\":\"Jan\",\"lastName\":\"Kowalski\",\"whs\":20.1,\"r\":[30,31,0,0]}]}"))
+				.andExpect(status().isOk()).andReturn();
+
+		verify(cycleImportService, times(1)).importCycleTournament(eq(1L), eq("Test cycle tournament"), eq(1), eq(false), any());
+	}
+
 	@DisplayName("Should return all cycles")
 	@Test
 	void getCyclesThenReturns200() throws Exception {
@@ -158,6 +178,18 @@ class CycleControllerTest {
 
 	}
 
+	@DisplayName("Should return cycle standings after the tournament")
+	@Test
+	void getCycleStandingsThenReturns200() throws Exception {
+
+		var outputLst = new ArrayList<CycleStanding>();
+
+		when(cycleService.findCycleStandings(1L, 2L)).thenReturn(outputLst);
+
+		mockMvc.perform(get("/rest/CycleResult/1/2")).andExpect(status().isOk());
+
+	}
+
 	@DisplayName("Should close cycle with correct result")
 	@Test
 	void closeCycleWithValidInputThenReturns200() throws Exception {
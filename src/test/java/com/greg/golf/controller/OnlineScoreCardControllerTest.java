@@ -4,13 +4,19 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import com.greg.golf.security.oauth.GolfAuthenticationFailureHandler;
 import com.greg.golf.security.oauth.GolfAuthenticationSuccessHandler;
@@ -23,19 +29,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.greg.golf.controller.dto.OnlineRoundDto;
 import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.controller.dto.PlayerDto;
 import com.greg.golf.entity.OnlineRound;
 import com.greg.golf.entity.OnlineScoreCard;
 import com.greg.golf.entity.Player;
 import com.greg.golf.security.JwtAuthenticationEntryPoint;
 import com.greg.golf.security.JwtRequestFilter;
+import com.greg.golf.service.OnlineLeaderboardService;
 import com.greg.golf.service.OnlineRoundService;
+import com.greg.golf.service.OnlineScoreCardPublisher;
 import com.greg.golf.service.PlayerService;
 
 @Slf4j
@@ -65,7 +73,10 @@ class OnlineScoreCardControllerTest {
 	private ModelMapper modelMapper;
 
 	@MockBean
-	private SimpMessagingTemplate template;
+	private OnlineScoreCardPublisher onlineScoreCardPublisher;
+
+	@MockBean
+	private OnlineLeaderboardService onlineLeaderboardService;
 
 	@MockBean
 	private GolfOAuth2UserService golfOAuth2UserService;
@@ -135,6 +146,25 @@ class OnlineScoreCardControllerTest {
 		mockMvc.perform(get("/rest/OnlineScoreCard/1")).andExpect(status().isOk());
 
 	}
+
+	@DisplayName("Should return online score cards changed after sequence")
+	@Test
+	void getOnlineScoreCardChangesThenReturns200() throws Exception {
+
+		var onlineScoreCard = new OnlineScoreCard();
+		onlineScoreCard.setHole(3);
+		onlineScoreCard.setStroke(4);
+		onlineScoreCard.setSequence(12L);
+		var onlineScoreCardDto = new OnlineScoreCardDto();
+		onlineScoreCardDto.setSequence(12L);
+
+		when(onlineRoundService.getOnlineScoreCardChanges(1L, 10L)).thenReturn(List.of(onlineScoreCard));
+		when(modelMapper.map(onlineScoreCard, OnlineScoreCardDto.class)).thenReturn(onlineScoreCardDto);
+
+		mockMvc.perform(get("/rest/OnlineScoreCard/1/10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].sequence").value(12));
+	}
 	
 	@DisplayName("Should return online rounds for course")
 	@Test
@@ -149,6 +179,16 @@ class OnlineScoreCardControllerTest {
 
 	}
 
+	@DisplayName("Should return online leaderboard for course")
+	@Test
+	void getOnlineLeaderboardThenReturns200() throws Exception {
+
+		when(onlineLeaderboardService.getLeaderboard(1L)).thenReturn(new ArrayList<>());
+
+		mockMvc.perform(get("/rest/OnlineLeaderboard/1")).andExpect(status().isOk());
+
+	}
+
 	@DisplayName("Should return player for nick")
 	@Test
 	void getPlayerForNickThenReturns200() throws Exception {
@@ -196,11 +236,17 @@ class OnlineScoreCardControllerTest {
 	@Test
 	void saveOnlineScorecard(@Autowired OnlineScoreCardController onlineScoreCardController) {
 		
+		var player = new PlayerDto();
+		player.setId(1L);
+
 		var onlineScorecardDto = new OnlineScoreCardDto();
 		onlineScorecardDto.setPenalty(0);
 		onlineScorecardDto.setPutt(1);
 		onlineScorecardDto.setStroke(3);
 		onlineScorecardDto.setOrId(1);
+		onlineScorecardDto.setHole(1);
+		onlineScorecardDto.setPlayer(player);
+		onlineScorecardDto.setTime("10:00");
 		
 		var onlineScorecard = new OnlineScoreCard();
 		onlineScorecard.setPenalty(0);
@@ -211,13 +257,39 @@ class OnlineScoreCardControllerTest {
 		
 		//when(modelMapper.map(Mockito.mock(OnlineScoreCardDto.class), OnlineScoreCard.class)).thenReturn(onlineScorecard);
 		when(modelMapper.map(any(),  any())).thenReturn(null);
-		when(onlineRoundService.saveOnlineScoreCard(any())).thenReturn(new OnlineScoreCard());
+		doNothing().when(onlineRoundService).bufferOnlineScoreCard(any());
+		when(onlineScoreCardPublisher.roundExists(1L)).thenReturn(true);
 		
-		
-		Assertions.assertNull(onlineScoreCardController.send(onlineScorecardDto));
+		onlineScoreCardController.send(onlineScorecardDto);
+
+		verify(onlineScoreCardPublisher, times(1)).publish(onlineScorecardDto);
 
 	}
 
+	@DisplayName("Should reject online scorecard without time or of unknown online round")
+	@Test
+	void rejectInvalidOnlineScorecard(@Autowired OnlineScoreCardController onlineScoreCardController) {
+
+		var player = new PlayerDto();
+		player.setId(1L);
+
+		var onlineScorecardDto = new OnlineScoreCardDto();
+		onlineScorecardDto.setStroke(3);
+		onlineScorecardDto.setOrId(1);
+		onlineScorecardDto.setHole(1);
+		onlineScorecardDto.setPlayer(player);
+
+		when(onlineScoreCardPublisher.roundExists(1L)).thenReturn(true);
+		onlineScoreCardController.send(onlineScorecardDto);
+
+		onlineScorecardDto.setTime("10:00");
+		onlineScorecardDto.setOrId(2);
+		onlineScoreCardController.send(onlineScorecardDto);
+
+		verify(onlineRoundService, never()).bufferOnlineScoreCard(any());
+		verify(onlineScoreCardPublisher, never()).publish(any());
+	}
+
 	@DisplayName("Should sync online scorecard with correct result")
 	@Test
 	void syncOnlineScoreCardWhenValidInputThenReturns200() throws Exception {
@@ -230,13 +302,32 @@ class OnlineScoreCardControllerTest {
 		var inputLst = new ArrayList<OnlineRoundDto>();
 		inputLst.add(input);
 
-		doNothing().when(template).convertAndSend(anyString(), (OnlineScoreCardDto)any());
+		doNothing().when(onlineScoreCardPublisher).publish(any());
 
 		mockMvc.perform(post("/rest/OnlineScoreCard").contentType("application/json").characterEncoding("utf-8")
 				.content(objectMapper.writeValueAsString(inputLst))).andExpect(status().isOk()).andReturn();
 
 	}
 	
+	@DisplayName("Should sync online scorecard changes and return acknowledged sequence")
+	@Test
+	void syncOnlineScoreCardChangesWhenValidInputThenReturns200() throws Exception {
+
+		var input = new OnlineScoreCardDto();
+		input.setOrId(1L);
+		input.setHole(1);
+		input.setStroke(4);
+		input.setTime("10:00");
+
+		when(modelMapper.map(any(), any())).thenReturn(new OnlineScoreCard());
+		when(onlineRoundService.syncOnlineScoreCardChanges(any())).thenReturn(Map.of(1L, 7L));
+
+		mockMvc.perform(post("/rest/OnlineScoreCardSync").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(List.of(input))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.1").value(7));
+	}
+
 	@AfterAll
 	public static void done() {
 
@@ -11,6 +11,11 @@ import com.greg.golf.security.JwtRequestFilter;
 import com.greg.golf.security.oauth.GolfAuthenticationFailureHandler;
 import com.greg.golf.security.oauth.GolfAuthenticationSuccessHandler;
 import com.greg.golf.security.oauth.GolfOAuth2UserService;
+import com.greg.golf.service.TournamentExportService;
+import com.greg.golf.service.TournamentLeaderboardCache;
+import com.greg.golf.service.TournamentProjectionService;
+import com.greg.golf.service.TournamentRebuildService;
+import com.greg.golf.service.helpers.RebuildProgress;
 import com.greg.golf.service.TournamentService;
 import com.greg.golf.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -27,15 +32,19 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @Slf4j
 @AutoConfigureMockMvc(addFilters = false)
@@ -50,6 +59,18 @@ class TournamentControllerTest {
 	@MockBean
 	private TournamentService tournamentService;
 
+	@MockBean
+	private TournamentLeaderboardCache tournamentLeaderboardCache;
+
+	@MockBean
+	private TournamentRebuildService tournamentRebuildService;
+
+	@MockBean
+	private TournamentProjectionService tournamentProjectionService;
+
+	@MockBean
+	private TournamentExportService tournamentExportService;
+
 	@SuppressWarnings("unused")
 	@MockBean
 	private ModelMapper modelMapper;
@@ -111,7 +132,9 @@ class TournamentControllerTest {
 		var outputLst = new ArrayList<TournamentResult>();
 
 		when(tournamentService.findAllTournamentsResults(1L)).thenReturn(outputLst);
+		when(tournamentLeaderboardCache.get(anyLong(), any())).thenAnswer(i -> i.getArgument(1, Supplier.class).get());
 		mockMvc.perform(get("/rest/TournamentResult/1")).andExpect(status().isOk());
+		verify(tournamentService, times(1)).findAllTournamentsResults(1L);
 	}
 
 	@DisplayName("Should get applicable rounds for tournament with correct result")
@@ -137,6 +160,23 @@ class TournamentControllerTest {
 				.content(objectMapper.writeValueAsString(input))).andExpect(status().isOk()).andReturn();
 	}
 
+	@DisplayName("Should add multiple rounds to tournament with correct result")
+	@Test
+	void addRoundsToTournamentWhenValidInputThenReturns200() throws Exception {
+
+		var input = new ArrayList<LimitedRoundDto>();
+		var round = new LimitedRoundDto();
+		round.setId(1L);
+		input.add(round);
+
+		when(tournamentService.addRounds(anyLong(), any())).thenReturn(new ArrayList<>());
+
+		mockMvc.perform(post("/rest/TournamentRounds/1").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(input))).andExpect(status().isOk()).andReturn();
+
+		verify(tournamentService, times(1)).addRounds(1L, List.of(1L));
+	}
+
 	@DisplayName("Should add tournament with correct result")
 	@Test
 	void addTournamentWhenValidInputThenReturns200() throws Exception {
@@ -183,6 +223,60 @@ class TournamentControllerTest {
 				.content(objectMapper.writeValueAsString(input))).andExpect(status().isOk()).andReturn();
 	}
 
+	@DisplayName("Should rebuild tournament results")
+	@Test
+	void rebuildTournamentWhenValidInputThenReturns200() throws Exception {
+
+		when(tournamentRebuildService.rebuild(1L)).thenReturn(new RebuildProgress());
+		mockMvc.perform(post("/rest/TournamentRebuild/1")).andExpect(status().isOk());
+		verify(tournamentRebuildService, times(1)).rebuild(1L);
+	}
+
+	@DisplayName("Should get progress of tournament rebuild")
+	@Test
+	void getRebuildProgressWhenValidInputThenReturns200() throws Exception {
+
+		when(tournamentRebuildService.getProgress(1L)).thenReturn(new RebuildProgress());
+		mockMvc.perform(get("/rest/TournamentRebuild/1")).andExpect(status().isOk());
+	}
+
+	@DisplayName("Should return projected tournament results")
+	@Test
+	void getTournamentProjectionWhenValidInputThenReturns200() throws Exception {
+
+		var input = new ArrayList<TournamentProjectionRoundDto>();
+		var round = new TournamentProjectionRoundDto();
+		round.setPlayerId(1L);
+		round.setTeeId(1L);
+		round.setStrokes(Collections.nCopies(18, 4));
+		input.add(round);
+
+		when(tournamentProjectionService.project(anyLong(), any())).thenReturn(new ArrayList<>());
+
+		mockMvc.perform(post("/rest/TournamentProjection/1").contentType("application/json").characterEncoding("utf-8")
+				.content(objectMapper.writeValueAsString(input))).andExpect(status().isOk()).andReturn();
+
+		verify(tournamentProjectionService, times(1)).project(anyLong(), any());
+	}
+
+	@DisplayName("Should stream tournament export")
+	@Test
+	void exportTournamentWhenValidInputThenReturns200() throws Exception {
+
+		doAnswer(i -> {
+			i.getArgument(2, OutputStream.class).write("result_id\n1\n".getBytes());
+			return null;
+		}).when(tournamentExportService).export(anyLong(), any(), any());
+
+		var result = mockMvc.perform(get("/rest/TournamentExport/1").param("format", "csv"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().string("result_id\n1\n"));
+
+		verify(tournamentExportService, times(1)).verify(1L, "csv");
+	}
+
 	@DisplayName("Should delete result from tournament")
 	@Test
 	void deleteResultFromTournamentWhenValidInputThenReturns200() throws Exception {
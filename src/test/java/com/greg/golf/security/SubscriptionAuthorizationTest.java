@@ -0,0 +1,75 @@
+package com.greg.golf.security;
+
+import com.greg.golf.repository.TournamentRepository;
+import com.greg.golf.service.CourseRegistry;
+import com.greg.golf.service.OnlineScoreCardPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.NoSuchElementException;
+
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class SubscriptionAuthorizationTest {
+
+	private SubscriptionAuthorization subscriptionAuthorization;
+
+	@BeforeEach
+	void setup() {
+
+		var onlineScoreCardPublisher = Mockito.mock(OnlineScoreCardPublisher.class);
+		when(onlineScoreCardPublisher.roundExists(1L)).thenReturn(true);
+		var courseRegistry = Mockito.mock(CourseRegistry.class);
+		when(courseRegistry.getCourse(2L)).thenThrow(new NoSuchElementException("Course 2 not found"));
+		var tournamentRepository = Mockito.mock(TournamentRepository.class);
+		when(tournamentRepository.existsById(3L)).thenReturn(true);
+
+		subscriptionAuthorization = new SubscriptionAuthorization(onlineScoreCardPublisher, courseRegistry,
+				tournamentRepository);
+	}
+
+	@DisplayName("Should allow watching only existing rounds, courses and tournaments")
+	@Test
+	void canWatchTest() {
+
+		Assertions.assertTrue(subscriptionAuthorization.canWatch("/topic/round/1"));
+		Assertions.assertTrue(subscriptionAuthorization.canWatch("/topic/binary/round/1"));
+		Assertions.assertFalse(subscriptionAuthorization.canWatch("/topic/round/5"));
+		Assertions.assertTrue(subscriptionAuthorization.canWatch("/topic/course/1"));
+		Assertions.assertFalse(subscriptionAuthorization.canWatch("/topic/leaderboard/2"));
+		Assertions.assertTrue(subscriptionAuthorization.canWatch("/topic/tournament/3"));
+		Assertions.assertFalse(subscriptionAuthorization.canWatch("/topic/tournament/4"));
+		Assertions.assertFalse(subscriptionAuthorization.canWatch("/topic/round/abc"));
+		Assertions.assertFalse(subscriptionAuthorization.canWatch("/topic"));
+	}
+
+	@DisplayName("Should reject subscription of destination that cannot be watched")
+	@Test
+	void interceptorTest() {
+
+		var interceptor = new SocketSecurityConfig.SubscriptionInterceptor(subscriptionAuthorization);
+		var channel = Mockito.mock(MessageChannel.class);
+
+		var allowed = subscribe("/topic/round/1");
+		Assertions.assertSame(allowed, interceptor.preSend(allowed, channel));
+		Assertions.assertThrows(AccessDeniedException.class, () -> interceptor.preSend(subscribe("/topic/round/5"), channel));
+	}
+
+	private Message<byte[]> subscribe(String destination) {
+
+		var headers = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+		headers.setDestination(destination);
+		return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+	}
+}
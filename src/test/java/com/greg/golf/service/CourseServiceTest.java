@@ -1,6 +1,7 @@
 package com.greg.golf.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -188,6 +189,20 @@ class CourseServiceTest {
 		assertTrue(tee.isPresent());
 	}
 	
+	@DisplayName("Get course and tee from registry")
+	@Transactional
+	@Test
+	void getFromRegistryTest(@Autowired CourseRegistry courseRegistry) {
+
+		var course = courseRegistry.getCourse(1L);
+		var tee = courseRegistry.getTee(1L);
+
+		assertTrue(Arrays.stream(course.par()).allMatch(par -> par >= 3));
+		assertTrue(Arrays.stream(course.si()).allMatch(si -> si >= 1));
+		assertEquals(1L, tee.courseId());
+		assertEquals(courseService.getTeeById(1L).orElseThrow().getSr(), tee.sr());
+	}
+
 	@DisplayName("Get favourite courses for player")
 	@Transactional
 	@Test
@@ -33,6 +33,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.PostgreSQLContainer;
 
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -242,6 +244,80 @@ class CycleServiceTest {
         assertNotNull(cycleTournament.getId());
     }
 
+    @DisplayName("Should import cycle tournaments from streamed Eagle results")
+    @Transactional
+    @Test
+    void importCycleTournamentTest(@Autowired CycleImportService cycleImportService,
+                                   @Autowired CycleResultRepository cycleResultRepository) throws Exception {
+
+        var authorities = new ArrayList<GrantedAuthority>();
+        authorities.add(new SimpleGrantedAuthority(Common.ADMIN));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("unauthorized", "fake", authorities));
+
+        cycle.setBestRounds(2);
+        cycle = cycleService.addCycle(cycle);
+
+        cycleImportService.importCycleTournament(cycle.getId(), "Test cycle tournament 1", 2, false,
+                new ByteArrayInputStream(("{\"items\":[{\"firstName\":\"James\",\"lastName\":\"Bond\",\"whs\":10.0,\"r\":[30,35,0,0]}," +
+                        "{\"firstName\":\"Too\",\"lastName\":\"High\",\"whs\":36.0,\"r\":[40,40,0,0]}]}")
+                        .getBytes(StandardCharsets.UTF_8)));
+        cycleImportService.importCycleTournament(cycle.getId(), "Test cycle tournament 2", 2, false,
+                new ByteArrayInputStream(("[{\"firstName\":\"Jan\",\"lastName\":\"Nowak\",\"whs\":5.0,\"r\":[20,25,0,0]}]")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        var results = cycleService.findCycleResults(cycle.getId());
+        assertEquals(2, results.size());
+        assertArrayEquals(new int[]{30, 35, 0, 0, 0, 0, 0, 0}, results.get(0).getResults());
+        assertEquals(65, results.get(0).getCycleScore());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 20, 25, 0, 0}, results.get(1).getResults());
+        assertEquals(45, results.get(1).getTotal());
+    }
+
+    @DisplayName("Should return standings after the tournament and restore them when the last tournament is removed")
+    @Transactional
+    @Test
+    void cycleStandingsTest(@Autowired CycleImportService cycleImportService,
+                            @Autowired CycleTournamentRepository cycleTournamentRepository) throws Exception {
+
+        var authorities = new ArrayList<GrantedAuthority>();
+        authorities.add(new SimpleGrantedAuthority(Common.ADMIN));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("unauthorized", "fake", authorities));
+
+        cycle.setBestRounds(2);
+        cycle = cycleService.addCycle(cycle);
+
+        var first = cycleImportService.importCycleTournament(cycle.getId(), "Test cycle tournament 1", 2, false,
+                new ByteArrayInputStream(("[{\"firstName\":\"James\",\"lastName\":\"Bond\",\"whs\":10.0,\"r\":[30,35,0,0]}]")
+                        .getBytes(StandardCharsets.UTF_8)));
+        var second = cycleImportService.importCycleTournament(cycle.getId(), "Test cycle tournament 2", 2, false,
+                new ByteArrayInputStream(("[{\"firstName\":\"James\",\"lastName\":\"Bond\",\"whs\":10.0,\"r\":[40,0,0,0]}," +
+                        "{\"firstName\":\"Jan\",\"lastName\":\"Nowak\",\"whs\":5.0,\"r\":[20,25,0,0]}]")
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        var standings = cycleService.findCycleStandings(cycle.getId(), first.getId());
+        assertEquals(1, standings.size());
+        assertEquals(65, standings.get(0).getCycleScore());
+
+        standings = cycleService.findCycleStandings(cycle.getId(), second.getId());
+        assertEquals(2, standings.size());
+        assertEquals(75, standings.get(0).getCycleScore());
+        assertEquals(105, standings.get(0).getTotal());
+        assertEquals(45, standings.get(1).getCycleScore());
+
+        cycleService.removeLastCycleTournament(cycle);
+
+        var results = cycleService.findCycleResults(cycle.getId());
+        assertEquals(1, results.size());
+        assertArrayEquals(new int[]{30, 35, 0, 0}, results.get(0).getResults());
+        assertEquals(65, results.get(0).getCycleScore());
+        assertEquals(65, results.get(0).getTotal());
+        assertEquals(1, cycleTournamentRepository.findByCycleOrderById(cycle).size());
+    }
+
     @DisplayName("Should not add the cycle tournament by unauthorized user")
     @Transactional
     @Test
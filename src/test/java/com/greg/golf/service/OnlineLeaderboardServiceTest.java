@@ -0,0 +1,112 @@
+package com.greg.golf.service;
+
+import com.greg.golf.controller.dto.OnlineLeaderboardRowDto;
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+class OnlineLeaderboardServiceTest {
+
+	private int[] par;
+	private int[] si;
+
+	@BeforeEach
+	void setup() {
+
+		par = new int[18];
+		Arrays.fill(par, 4);
+		si = IntStream.rangeClosed(1, 18).toArray();
+	}
+
+	@DisplayName("Should count only played holes and replace corrected hole result")
+	@Test
+	void entryTest() {
+
+		// course handicap 18 gives one stroke on each hole
+		var entry = new OnlineLeaderboardService.Entry(1L, "golfer", 18, par, si);
+
+		entry.set(1, 5);
+		entry.set(2, 7);
+		entry.set(2, 3);
+
+		Assertions.assertEquals(new OnlineLeaderboardRowDto(1L, "golfer", 1, 2, 8, 0, -2, 6), entry.toRow(1));
+	}
+
+	@DisplayName("Should send only rows with changed rank or score")
+	@Test
+	void deltaTest() {
+
+		var leaderboard = new OnlineLeaderboardService.Leaderboard(1L);
+		leaderboard.add(new OnlineLeaderboardService.Entry(1L, "first", 18, par, si));
+		leaderboard.add(new OnlineLeaderboardService.Entry(2L, "second", 18, par, si));
+		leaderboard.add(new OnlineLeaderboardService.Entry(3L, "third", 0, par, si));
+		leaderboard.set(1L, 1, 4);
+		leaderboard.set(3L, 1, 4);
+
+		var delta = leaderboard.delta();
+		Assertions.assertEquals(1L, delta.getSequence());
+		Assertions.assertEquals(List.of(1L, 3L, 2L), delta.getChanged().stream().map(OnlineLeaderboardRowDto::getOrId).toList());
+		Assertions.assertNull(leaderboard.delta());
+
+		// second player takes the lead, first and third move one rank down
+		leaderboard.set(2L, 1, 3);
+
+		delta = leaderboard.delta();
+		Assertions.assertEquals(2L, delta.getSequence());
+		Assertions.assertEquals(List.of(2L, 1L, 3L), delta.getChanged().stream().map(OnlineLeaderboardRowDto::getOrId).toList());
+		Assertions.assertEquals(1, delta.getChanged().get(0).getRank());
+		Assertions.assertEquals(3, delta.getChanged().get(2).getRank());
+
+		// correction of the hole of the last player does not change ranks of others
+		leaderboard.set(3L, 1, 5);
+
+		delta = leaderboard.delta();
+		Assertions.assertEquals(List.of(3L), delta.getChanged().stream().map(OnlineLeaderboardRowDto::getOrId).toList());
+
+		// the same result again changes nothing
+		leaderboard.set(3L, 1, 5);
+		Assertions.assertNull(leaderboard.delta());
+		Assertions.assertEquals(List.of(2L, 1L, 3L), leaderboard.rows().stream().map(OnlineLeaderboardRowDto::getOrId).toList());
+	}
+
+	@DisplayName("Should not keep leaderboard of the course without online rounds")
+	@Test
+	void unknownCourseTest() {
+
+		var onlineRoundServiceConfig = new OnlineRoundServiceConfig();
+		onlineRoundServiceConfig.setCourseCacheSize(10);
+		onlineRoundServiceConfig.setRoundCacheSize(10);
+		var jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		var onlineScoreCardBuffer = Mockito.mock(OnlineScoreCardBuffer.class);
+		when(onlineScoreCardBuffer.withoutFlush(any())).thenAnswer(invocation ->
+				invocation.getArgument(0, Supplier.class).get());
+		var onlineLeaderboardService = new OnlineLeaderboardService(jdbcTemplate, Mockito.mock(CourseRegistry.class),
+				onlineScoreCardBuffer, Mockito.mock(SimpMessagingTemplate.class), onlineRoundServiceConfig);
+
+		Assertions.assertTrue(onlineLeaderboardService.getLeaderboard(1000L).isEmpty());
+		Assertions.assertTrue(onlineLeaderboardService.getLeaderboard(1000L).isEmpty());
+
+		// nothing cached so the course is read again
+		verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(1000L));
+	}
+}
@@ -85,7 +85,7 @@ class OnlineRoundServiceTest {
 		onlineRound.setDate(new Date());
 		onlineRound.setTeeTime("10:00");
 		onlineRound.setOwner(player.getId());
-		onlineRound.setFinalized(false);
+		onlineRound.setFinalized(true);
 		onlineRound.setMatchPlay(false);
 		onlineRoundRepository.save(onlineRound);
 		
@@ -93,6 +93,26 @@ class OnlineRoundServiceTest {
 		onlineRoundService.purge();
 		Assertions.assertTrue(onlineRoundRepository.findAll().isEmpty());
 	}
+
+	@DisplayName("Purge keeps online rounds being played")
+	@Transactional
+	@Test
+	void purgeNotFinalizedTest() {
+
+		OnlineRound onlineRound = new OnlineRound();
+		onlineRound.setCourse(course);
+		onlineRound.setCourseTee(courseTee);
+		onlineRound.setPlayer(player);
+		onlineRound.setDate(new Date());
+		onlineRound.setTeeTime("10:00");
+		onlineRound.setOwner(player.getId());
+		onlineRound.setFinalized(false);
+		onlineRound.setMatchPlay(false);
+		onlineRoundRepository.save(onlineRound);
+
+		onlineRoundService.purge();
+		Assertions.assertEquals(1, onlineRoundRepository.findAll().size());
+	}
 		
 	@DisplayName("Save online score card")
 	@Transactional
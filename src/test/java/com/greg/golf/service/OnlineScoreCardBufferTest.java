@@ -0,0 +1,208 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.entity.Player;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+class OnlineScoreCardBufferTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private PlatformTransactionManager transactionManager;
+	private OnlineScoreCardJournal onlineScoreCardJournal;
+	private OnlineScoreCardBuffer onlineScoreCardBuffer;
+
+	@BeforeEach
+	void setup() {
+
+		var onlineRoundServiceConfig = new OnlineRoundServiceConfig();
+		onlineRoundServiceConfig.setScoreCardBufferSize(3);
+		onlineRoundServiceConfig.setScoreCardFlushInterval(1000);
+		jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		transactionManager = Mockito.mock(PlatformTransactionManager.class);
+		onlineScoreCardJournal = Mockito.mock(OnlineScoreCardJournal.class);
+		onlineScoreCardBuffer = new OnlineScoreCardBuffer(onlineRoundServiceConfig, jdbcTemplate,
+				transactionManager, onlineScoreCardJournal);
+	}
+
+	@DisplayName("Should keep only the last update of the hole")
+	@Test
+	void coalesceUpdatesTest() {
+
+		onlineScoreCardBuffer.add(scoreCard(1L, 1, 5));
+		onlineScoreCardBuffer.add(scoreCard(1L, 1, 4));
+		onlineScoreCardBuffer.add(scoreCard(1L, 2, 3));
+
+		Assertions.assertEquals(2, onlineScoreCardBuffer.size());
+
+		var merged = onlineScoreCardBuffer.merge(1L, List.of(scoreCard(1L, 1, 6), scoreCard(1L, 3, 2)));
+		Assertions.assertEquals(List.of(4, 3, 2), merged.stream().map(OnlineScoreCard::getStroke).toList());
+		Assertions.assertEquals(0, onlineScoreCardBuffer.merge(2L, List.of()).size());
+		Assertions.assertEquals(List.of(1, 2), onlineScoreCardBuffer.getPending(1L).stream()
+				.map(OnlineScoreCard::getHole).toList());
+	}
+
+	@DisplayName("Should upsert pending score cards in one batch")
+	@Test
+	void flushTest() {
+
+		onlineScoreCardBuffer.add(scoreCard(1L, 1, 5));
+		onlineScoreCardBuffer.add(scoreCard(2L, 1, 4));
+		when(onlineScoreCardJournal.rotate()).thenReturn(3L);
+		onlineScoreCardBuffer.flush();
+
+		Assertions.assertEquals(0, onlineScoreCardBuffer.size());
+		verify(jdbcTemplate, times(1)).batchUpdate(contains("ON CONFLICT"),
+				Mockito.<List<Object[]>>argThat(upserts -> upserts.size() == 2));
+		verify(onlineScoreCardJournal, times(2)).append(any());
+		verify(onlineScoreCardJournal, times(1)).release(3L);
+		// committed independently of the transaction of the caller
+		verify(transactionManager, times(1)).getTransaction(argThat(definition ->
+				definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+	}
+
+	@DisplayName("Should flush on the caller thread when the buffer is full")
+	@Test
+	void flushWhenFullTest() {
+
+		onlineScoreCardBuffer.add(scoreCard(1L, 1, 5));
+		onlineScoreCardBuffer.add(scoreCard(1L, 2, 5));
+		onlineScoreCardBuffer.add(scoreCard(1L, 3, 5));
+
+		Assertions.assertEquals(0, onlineScoreCardBuffer.size());
+		verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT"), anyList());
+	}
+
+	@DisplayName("Should keep score cards when flush fails")
+	@Test
+	void failedFlushTest() {
+
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList()))
+				.thenThrow(new DataAccessResourceFailureException("unavailable"));
+
+		onlineScoreCardBuffer.add(scoreCard(1L, 1, 5));
+		onlineScoreCardBuffer.scheduledFlush();
+
+		Assertions.assertEquals(1, onlineScoreCardBuffer.size());
+		verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT"), anyList());
+		verify(onlineScoreCardJournal, never()).release(anyLong());
+		// restored score card is journaled again
+		verify(onlineScoreCardJournal, times(2)).append(any());
+		verify(onlineScoreCardJournal, times(1)).cancel(anyLong());
+	}
+
+	@DisplayName("Should write the rejected batch row by row and drop invalid rows")
+	@Test
+	void rejectedRowTest() {
+
+		// online round 2 violates a constraint
+		when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyList())).thenAnswer(invocation -> {
+			List<Object[]> upserts = invocation.getArgument(1);
+			if (upserts.stream().anyMatch(upsert -> upsert[0].equals(2L))) {
+				throw new DataIntegrityViolationException("violation");
+			}
+			return new int[upserts.size()];
+		});
+		when(onlineScoreCardJournal.rotate()).thenReturn(1L);
+
+		onlineScoreCardBuffer.add(scoreCard(1L, 1, 5));
+		onlineScoreCardBuffer.add(scoreCard(2L, 1, 4));
+		onlineScoreCardBuffer.flush();
+
+		Assertions.assertEquals(0, onlineScoreCardBuffer.size());
+		verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT"), anyList());
+		verify(onlineScoreCardJournal, times(1)).release(1L);
+
+		// the next flush is not blocked by the dropped score card
+		onlineScoreCardBuffer.add(scoreCard(1L, 2, 5));
+		onlineScoreCardBuffer.flush();
+		verify(jdbcTemplate, times(4)).batchUpdate(startsWith("INSERT"), anyList());
+	}
+
+	@DisplayName("Should not flush while saved score cards are read")
+	@Test
+	void withoutFlushTest() throws Exception {
+
+		onlineScoreCardBuffer.add(scoreCard(1L, 1, 5));
+		var flush = new Thread(onlineScoreCardBuffer::flush);
+
+		var pending = onlineScoreCardBuffer.withoutFlush(() -> {
+			flush.start();
+			var deadline = System.currentTimeMillis() + 10000;
+			while (flush.getState() != Thread.State.BLOCKED && System.currentTimeMillis() < deadline) {
+				Thread.onSpinWait();
+			}
+			verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT"), anyList());
+			return onlineScoreCardBuffer.getPending(1L);
+		});
+		flush.join(10000);
+
+		Assertions.assertEquals(1, pending.size());
+		verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT"), anyList());
+	}
+
+	@DisplayName("Should not buffer score card without time or player")
+	@Test
+	void invalidScoreCardTest() {
+
+		var withoutTime = scoreCard(1L, 1, 5);
+		withoutTime.setTime(null);
+		var withoutPlayer = scoreCard(1L, 2, 5);
+		withoutPlayer.setPlayer(null);
+
+		onlineScoreCardBuffer.add(withoutTime);
+		onlineScoreCardBuffer.add(withoutPlayer);
+
+		Assertions.assertEquals(0, onlineScoreCardBuffer.size());
+		verify(onlineScoreCardJournal, never()).append(any());
+	}
+
+	@DisplayName("Should buffer score cards replayed from journal")
+	@Test
+	void replayTest() {
+
+		when(onlineScoreCardJournal.replay()).thenReturn(List.of(scoreCard(1L, 1, 5), scoreCard(1L, 1, 4)));
+
+		onlineScoreCardBuffer.replay();
+
+		Assertions.assertEquals(1, onlineScoreCardBuffer.size());
+		Assertions.assertEquals(4, onlineScoreCardBuffer.merge(1L, List.of()).get(0).getStroke());
+		verify(onlineScoreCardJournal, never()).append(any());
+	}
+
+	private OnlineScoreCard scoreCard(Long orId, int hole, int stroke) {
+
+		var player = new Player();
+		player.setId(1L);
+
+		var onlineScoreCard = new OnlineScoreCard();
+		onlineScoreCard.setOrId(orId);
+		onlineScoreCard.setHole(hole);
+		onlineScoreCard.setStroke(stroke);
+		onlineScoreCard.setPutt(0);
+		onlineScoreCard.setPenalty(0);
+		onlineScoreCard.setPlayer(player);
+		onlineScoreCard.setTime("10:00");
+		return onlineScoreCard;
+	}
+}
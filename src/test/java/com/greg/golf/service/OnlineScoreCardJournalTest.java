@@ -0,0 +1,157 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.entity.OnlineScoreCard;
+import com.greg.golf.entity.Player;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Slf4j
+class OnlineScoreCardJournalTest {
+
+	@TempDir
+	Path directory;
+
+	private OnlineRoundServiceConfig onlineRoundServiceConfig;
+
+	@BeforeEach
+	void setup() {
+
+		onlineRoundServiceConfig = new OnlineRoundServiceConfig();
+		onlineRoundServiceConfig.setJournalDirectory(directory.toString());
+		onlineRoundServiceConfig.setJournalSegmentSize(1024);
+	}
+
+	@DisplayName("Should replay journaled score cards after restart")
+	@Test
+	void replayTest() throws Exception {
+
+		var journal = new OnlineScoreCardJournal(onlineRoundServiceConfig);
+		journal.append(scoreCard(1L, 1, 5, "10:15"));
+		journal.append(scoreCard(2L, 3, 4, null));
+		journal.shutdown();
+
+		var replayed = new OnlineScoreCardJournal(onlineRoundServiceConfig).replay();
+
+		Assertions.assertEquals(2, replayed.size());
+		Assertions.assertEquals(1L, replayed.get(0).getOrId());
+		Assertions.assertEquals(5, replayed.get(0).getStroke());
+		Assertions.assertEquals("10:15", replayed.get(0).getTime());
+		Assertions.assertNull(replayed.get(0).getPenalty());
+		Assertions.assertEquals(7L, replayed.get(1).getPlayer().getId());
+		Assertions.assertNull(replayed.get(1).getTime());
+	}
+
+	@DisplayName("Should rotate full segments and delete released ones")
+	@Test
+	void releaseTest() throws Exception {
+
+		var journal = new OnlineScoreCardJournal(onlineRoundServiceConfig);
+		for (var i = 0; i < 40; i++) {
+			journal.append(scoreCard(1L, i % 18 + 1, 5, "10:15"));
+		}
+		var mark = journal.rotate();
+		journal.append(scoreCard(1L, 1, 3, "10:15"));
+
+		Assertions.assertTrue(mark > 1);
+		journal.release(mark);
+
+		try (var files = Files.list(directory)) {
+			Assertions.assertEquals(1, files.count());
+		}
+		Assertions.assertEquals(3, new OnlineScoreCardJournal(onlineRoundServiceConfig).replay().get(0).getStroke());
+	}
+
+	@DisplayName("Should keep segments of the flush not committed yet")
+	@Test
+	void outstandingReleaseTest() throws Exception {
+
+		var journal = new OnlineScoreCardJournal(onlineRoundServiceConfig);
+		journal.append(scoreCard(1L, 1, 5, "10:15"));
+		var first = journal.rotate();
+		journal.append(scoreCard(1L, 2, 4, "10:25"));
+		var second = journal.rotate();
+
+		journal.release(second);
+		try (var files = Files.list(directory)) {
+			Assertions.assertEquals(1, files.count());
+		}
+		Assertions.assertEquals(5, new OnlineScoreCardJournal(onlineRoundServiceConfig).replay().get(0).getStroke());
+
+		journal.release(first);
+		try (var files = Files.list(directory)) {
+			Assertions.assertEquals(0, files.count());
+		}
+	}
+
+	@DisplayName("Should delete segments of the cancelled flush with the next release")
+	@Test
+	void cancelTest() throws Exception {
+
+		var journal = new OnlineScoreCardJournal(onlineRoundServiceConfig);
+		journal.append(scoreCard(1L, 1, 5, "10:15"));
+		var first = journal.rotate();
+		journal.append(scoreCard(1L, 1, 5, "10:15"));
+		journal.cancel(first);
+		journal.release(journal.rotate());
+
+		try (var files = Files.list(directory)) {
+			Assertions.assertEquals(0, files.count());
+		}
+	}
+
+	@DisplayName("Should fail with clear error when journal directory cannot be created")
+	@Test
+	void invalidDirectoryTest() throws Exception {
+
+		var file = Files.createFile(directory.resolve("file"));
+		onlineRoundServiceConfig.setJournalDirectory(file.resolve("journal").toString());
+
+		var exception = Assertions.assertThrows(IllegalStateException.class,
+				() -> new OnlineScoreCardJournal(onlineRoundServiceConfig));
+		Assertions.assertTrue(exception.getMessage().contains("online.journalDirectory"));
+	}
+
+	@DisplayName("Should ignore records after the corrupted one")
+	@Test
+	void corruptedRecordTest() throws Exception {
+
+		var journal = new OnlineScoreCardJournal(onlineRoundServiceConfig);
+		journal.append(scoreCard(1L, 1, 5, "10:15"));
+		journal.append(scoreCard(1L, 2, 4, "10:25"));
+		journal.shutdown();
+
+		var record = OnlineScoreCardJournal.encode(scoreCard(1L, 1, 5, "10:15"));
+		try (var file = new RandomAccessFile(directory.resolve("online-score-card-1.journal").toFile(), "rw")) {
+			// damage the stroke of the second record
+			file.seek(2L * 8 + record.length + 20);
+			file.writeByte(9);
+		}
+
+		var replayed = new OnlineScoreCardJournal(onlineRoundServiceConfig).replay();
+		Assertions.assertEquals(1, replayed.size());
+	}
+
+	private OnlineScoreCard scoreCard(long orId, int hole, int stroke, String time) {
+
+		var player = new Player();
+		player.setId(7L);
+
+		var onlineScoreCard = new OnlineScoreCard();
+		onlineScoreCard.setOrId(orId);
+		onlineScoreCard.setHole(hole);
+		onlineScoreCard.setStroke(stroke);
+		onlineScoreCard.setPutt(0);
+		onlineScoreCard.setPlayer(player);
+		onlineScoreCard.setTime(time);
+		return onlineScoreCard;
+	}
+}
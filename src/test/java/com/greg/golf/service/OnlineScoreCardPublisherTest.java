@@ -0,0 +1,79 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.service.helpers.OnlineScoreCardCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+class OnlineScoreCardPublisherTest {
+
+	private SimpMessagingTemplate template;
+	private JdbcTemplate jdbcTemplate;
+	private OnlineScoreCardSnapshots onlineScoreCardSnapshots;
+	private OnlineScoreCardPublisher onlineScoreCardPublisher;
+
+	@BeforeEach
+	void setup() {
+
+		var onlineRoundServiceConfig = new OnlineRoundServiceConfig();
+		onlineRoundServiceConfig.setRoundCacheSize(10);
+		template = Mockito.mock(SimpMessagingTemplate.class);
+		when(template.getMessageConverter()).thenReturn(new MappingJackson2MessageConverter());
+		jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		onlineScoreCardSnapshots = Mockito.mock(OnlineScoreCardSnapshots.class);
+		onlineScoreCardPublisher = new OnlineScoreCardPublisher(template, jdbcTemplate, onlineScoreCardSnapshots,
+				onlineRoundServiceConfig);
+	}
+
+	@DisplayName("Should send score card to round and course destinations")
+	@Test
+	void publishTest() {
+
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(1L))).thenReturn(List.of(5L));
+
+		var onlineScoreCard = new OnlineScoreCardDto();
+		onlineScoreCard.setOrId(1L);
+
+		onlineScoreCardPublisher.publish(onlineScoreCard);
+		onlineScoreCardPublisher.publish(onlineScoreCard);
+
+		verify(template, times(2)).send(eq("/topic/round/1"), any(Message.class));
+		verify(template, times(2)).send(eq("/topic/course/5"), any(Message.class));
+		verify(template, times(2)).send(eq("/topic/binary/round/1"),
+				argThat(message -> ((byte[]) message.getPayload()).length == OnlineScoreCardCodec.SIZE));
+		verify(template, times(2)).send(eq("/topic/binary/course/5"), any(Message.class));
+		verify(onlineScoreCardSnapshots, times(2)).update(onlineScoreCard, 5L);
+		// course of the round is read only once
+		verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(1L));
+	}
+
+	@DisplayName("Should send score card only to round destination if round is not found")
+	@Test
+	void publishUnknownRoundTest() {
+
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(2L))).thenReturn(List.of());
+
+		var onlineScoreCard = new OnlineScoreCardDto();
+		onlineScoreCard.setOrId(2L);
+
+		onlineScoreCardPublisher.publish(onlineScoreCard);
+
+		verify(template, times(1)).send(eq("/topic/round/2"), any(Message.class));
+		verify(template, never()).send(startsWith("/topic/course/"), any(Message.class));
+		verify(template, never()).send(startsWith("/topic/binary/course/"), any(Message.class));
+	}
+}
@@ -0,0 +1,128 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.OnlineRoundServiceConfig;
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.service.helpers.OnlineScoreCardCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+class OnlineScoreCardSnapshotsTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private OnlineScoreCardBuffer onlineScoreCardBuffer;
+	private OnlineScoreCardSnapshots onlineScoreCardSnapshots;
+
+	@BeforeEach
+	void setup() throws Exception {
+
+		jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		onlineScoreCardBuffer = Mockito.mock(OnlineScoreCardBuffer.class);
+		when(onlineScoreCardBuffer.getPending(anyLong())).thenReturn(List.of());
+		when(onlineScoreCardBuffer.withoutFlush(any())).thenAnswer(invocation ->
+				invocation.getArgument(0, Supplier.class).get());
+		var onlineRoundServiceConfig = new OnlineRoundServiceConfig();
+		onlineRoundServiceConfig.setRoundCacheSize(10);
+		onlineRoundServiceConfig.setCourseCacheSize(10);
+		onlineScoreCardSnapshots = new OnlineScoreCardSnapshots(jdbcTemplate, onlineScoreCardBuffer,
+				Mockito.mock(OnlineLeaderboardService.class), onlineRoundServiceConfig);
+
+		// course 5 with round 1 having hole 1 saved and round 2 without score cards
+		var rs = Mockito.mock(ResultSet.class);
+		when(rs.getObject(1)).thenReturn(1L, (Object) null);
+		when(rs.getLong(1)).thenReturn(1L);
+		when(rs.getInt(2)).thenReturn(1);
+		when(rs.getInt(3)).thenReturn(5);
+		when(rs.getLong(8)).thenReturn(10L);
+		when(rs.getLong(9)).thenReturn(1L, 2L);
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			handler.processRow(rs);
+			handler.processRow(rs);
+			return null;
+		}).when(jdbcTemplate).query(contains("r.course_id"), any(RowCallbackHandler.class), eq(5L));
+	}
+
+	@DisplayName("Should read course once and apply published score cards")
+	@Test
+	void courseSnapshotTest() {
+
+		Assertions.assertEquals(1, onlineScoreCardSnapshots.getCourse(5L).size());
+
+		onlineScoreCardSnapshots.update(scoreCard(1L, 1, 4), 5L);
+		onlineScoreCardSnapshots.update(scoreCard(2L, 1, 3), 5L);
+		onlineScoreCardSnapshots.update(scoreCard(3L, 1, 6), 5L);
+
+		var snapshot = onlineScoreCardSnapshots.getSnapshot("/topic/course/5");
+		Assertions.assertEquals(3, ((List<?>) snapshot).size());
+		Assertions.assertEquals(List.of(4), onlineScoreCardSnapshots.getRound(1L).stream()
+				.map(OnlineScoreCardDto::getStroke).toList());
+		verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), anyLong());
+	}
+
+	@DisplayName("Should read course again after invalidation")
+	@Test
+	void invalidateTest() {
+
+		onlineScoreCardSnapshots.getCourse(5L);
+		onlineScoreCardSnapshots.invalidate();
+		onlineScoreCardSnapshots.getCourse(5L);
+
+		verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(5L));
+	}
+
+	@DisplayName("Should not keep unknown online rounds and courses")
+	@Test
+	void unknownTest() {
+
+		Assertions.assertTrue(onlineScoreCardSnapshots.getRound(100L).isEmpty());
+		Assertions.assertTrue(onlineScoreCardSnapshots.getRound(100L).isEmpty());
+		Assertions.assertTrue(onlineScoreCardSnapshots.getCourse(100L).isEmpty());
+		Assertions.assertTrue(onlineScoreCardSnapshots.getCourse(100L).isEmpty());
+
+		verify(jdbcTemplate, times(4)).query(anyString(), any(RowCallbackHandler.class), eq(100L));
+	}
+
+	@DisplayName("Should encode snapshot for binary destinations")
+	@Test
+	void binaryDestinationTest() {
+
+		var snapshot = onlineScoreCardSnapshots.getSnapshot("/topic/binary/course/5");
+
+		var decoded = OnlineScoreCardCodec.decodeAll((byte[]) snapshot);
+		Assertions.assertEquals(1, decoded.size());
+		Assertions.assertEquals(1L, decoded.get(0).getOrId());
+		Assertions.assertEquals(5, decoded.get(0).getStroke());
+	}
+
+	@DisplayName("Should return no snapshot for other destinations")
+	@Test
+	void otherDestinationTest() {
+
+		Assertions.assertNull(onlineScoreCardSnapshots.getSnapshot("/topic/tournament/1"));
+		Assertions.assertNull(onlineScoreCardSnapshots.getSnapshot("/topic/round/abc"));
+		verifyNoInteractions(jdbcTemplate);
+	}
+
+	private OnlineScoreCardDto scoreCard(long orId, int hole, int stroke) {
+
+		var onlineScoreCard = new OnlineScoreCardDto();
+		onlineScoreCard.setOrId(orId);
+		onlineScoreCard.setHole(hole);
+		onlineScoreCard.setStroke(stroke);
+		return onlineScoreCard;
+	}
+}
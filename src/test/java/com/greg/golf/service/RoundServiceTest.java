@@ -268,6 +268,30 @@ class RoundServiceTest {
 		Assertions.assertThrows(PlayerAlreadyHasThatRoundException.class, () -> roundService.saveRound(newRound));
 	}
 
+	@DisplayName("Try to save rounds of the flight for the same player twice")
+	@Transactional
+	@Test
+	void saveRoundsForTheSamePlayerTwiceTest(@Autowired RoundRepository roundRepository) {
+
+		var round = roundRepository.findById(roundId).orElseThrow();
+
+		var player = new Player();
+		player.setId(1L);
+
+		var newRound = new Round();
+		newRound.setCourse(round.getCourse());
+		var playerSet = new TreeSet<Player>();
+		playerSet.add(player);
+		newRound.setPlayer(playerSet);
+		newRound.setMatchPlay(false);
+		newRound.setRoundDate(round.getRoundDate());
+		newRound.setScoreCard(new ArrayList<>());
+		var rounds = List.of(newRound);
+
+		Assertions.assertThrows(PlayerAlreadyHasThatRoundException.class, () -> roundService.saveRounds(rounds));
+		Assertions.assertEquals(2, roundRepository.findById(roundId).orElseThrow().getScoreCard().size());
+	}
+
 	@DisplayName("Try to add scorecard to existing round")
 	@Transactional
 	@Test
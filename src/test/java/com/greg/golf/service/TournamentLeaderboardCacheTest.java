@@ -0,0 +1,93 @@
+package com.greg.golf.service;
+
+import com.greg.golf.configurationproperties.TournamentServiceConfig;
+import com.greg.golf.controller.dto.TournamentResultDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+class TournamentLeaderboardCacheTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private TournamentLeaderboardCache tournamentLeaderboardCache;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setup() {
+
+		var tournamentServiceConfig = new TournamentServiceConfig();
+		tournamentServiceConfig.setLeaderboardCacheSize(2);
+		tournamentServiceConfig.setLeaderboardCacheExpireMinutes(60);
+		meterRegistry = new SimpleMeterRegistry();
+		tournamentLeaderboardCache = new TournamentLeaderboardCache(tournamentServiceConfig, meterRegistry);
+		loads = new AtomicInteger();
+	}
+
+	@DisplayName("Should return cached results till tournament is invalidated")
+	@Test
+	void cachedUntilInvalidatedTest() {
+
+		tournamentLeaderboardCache.get(1L, this::load);
+		var results = tournamentLeaderboardCache.get(1L, this::load);
+
+		Assertions.assertEquals(1, loads.get());
+		Assertions.assertEquals(1, results.size());
+
+		tournamentLeaderboardCache.invalidate(1L);
+		tournamentLeaderboardCache.get(1L, this::load);
+
+		Assertions.assertEquals(2, loads.get());
+		Assertions.assertEquals(1, meterRegistry.counter("tournament.leaderboard.cache.gets", "result", "hit").count());
+		Assertions.assertEquals(2, meterRegistry.counter("tournament.leaderboard.cache.gets", "result", "miss").count());
+	}
+
+	@DisplayName("Should not keep results loaded while tournament has been invalidated")
+	@Test
+	void invalidatedDuringLoadTest() {
+
+		tournamentLeaderboardCache.get(1L, () -> {
+			tournamentLeaderboardCache.invalidate(1L);
+			return load();
+		});
+		tournamentLeaderboardCache.get(1L, this::load);
+
+		Assertions.assertEquals(2, loads.get());
+	}
+
+	@DisplayName("Should invalidate only the given tournament")
+	@Test
+	void invalidateOtherTournamentTest() {
+
+		tournamentLeaderboardCache.get(1L, this::load);
+		tournamentLeaderboardCache.get(2L, this::load);
+		tournamentLeaderboardCache.invalidate(2L);
+		tournamentLeaderboardCache.get(1L, this::load);
+
+		Assertions.assertEquals(2, loads.get());
+	}
+
+	@DisplayName("Should evict results if cache size is exceeded")
+	@Test
+	void evictionTest() {
+
+		tournamentLeaderboardCache.get(1L, this::load);
+		tournamentLeaderboardCache.get(2L, this::load);
+		tournamentLeaderboardCache.get(3L, this::load);
+
+		Assertions.assertTrue(meterRegistry.get("tournament.leaderboard.cache.size").gauge().value() <= 2);
+		Assertions.assertTrue(meterRegistry.get("tournament.leaderboard.cache.evictions").functionCounter().count() >= 1);
+	}
+
+	private List<TournamentResultDto> load() {
+
+		loads.incrementAndGet();
+		return List.of(new TournamentResultDto());
+	}
+}
@@ -0,0 +1,76 @@
+package com.greg.golf.service;
+
+import com.greg.golf.controller.dto.TournamentResultDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+@Slf4j
+class TournamentLeaderboardPublisherTest {
+
+	@DisplayName("Should send the whole leaderboard as the first delta")
+	@Test
+	void firstDeltaTest() {
+
+		var results = List.of(result(1L, 40), result(2L, 36));
+
+		var delta = TournamentLeaderboardPublisher.getDelta(1L, null, results);
+
+		Assertions.assertEquals(1L, delta.getSequence());
+		Assertions.assertEquals(2, delta.getChanged().size());
+		Assertions.assertEquals(1, delta.getRanks().get(1L));
+		Assertions.assertEquals(2, delta.getRanks().get(2L));
+		Assertions.assertTrue(delta.getRemoved().isEmpty());
+	}
+
+	@DisplayName("Should send only changed results and changed ranks")
+	@Test
+	void changedResultsTest() {
+
+		var previous = new TournamentLeaderboardPublisher.Leaderboard(3,
+				TournamentLeaderboardPublisher.toRows(List.of(result(1L, 40), result(2L, 36), result(3L, 30), result(4L, 20))));
+
+		// player 3 overtakes player 2, player 1 and 4 unchanged, player 5 is new
+		var results = List.of(result(1L, 40), result(3L, 38), result(2L, 36), result(4L, 20), result(5L, 10));
+
+		var delta = TournamentLeaderboardPublisher.getDelta(1L, previous, results);
+
+		Assertions.assertEquals(4L, delta.getSequence());
+		Assertions.assertEquals(List.of(3L, 5L), delta.getChanged().stream().map(TournamentResultDto::getId).toList());
+		Assertions.assertEquals(3, delta.getRanks().size());
+		Assertions.assertEquals(2, delta.getRanks().get(3L));
+		Assertions.assertEquals(3, delta.getRanks().get(2L));
+		Assertions.assertEquals(5, delta.getRanks().get(5L));
+		Assertions.assertTrue(delta.getRemoved().isEmpty());
+	}
+
+	@DisplayName("Should send removed results")
+	@Test
+	void removedResultsTest() {
+
+		var previous = new TournamentLeaderboardPublisher.Leaderboard(1,
+				TournamentLeaderboardPublisher.toRows(List.of(result(1L, 40), result(2L, 36))));
+
+		var delta = TournamentLeaderboardPublisher.getDelta(1L, previous, List.of(result(2L, 36)));
+
+		Assertions.assertTrue(delta.getChanged().isEmpty());
+		Assertions.assertEquals(1, delta.getRanks().get(2L));
+		Assertions.assertEquals(List.of(1L), delta.getRemoved());
+	}
+
+	private TournamentResultDto result(Long id, int stbNet) {
+
+		var tournamentResult = new TournamentResultDto();
+		tournamentResult.setId(id);
+		tournamentResult.setStbNet(stbNet);
+		tournamentResult.setStbGross(0);
+		tournamentResult.setPlayedRounds(1);
+		tournamentResult.setStrokeRounds(1);
+		tournamentResult.setStrokesBrutto(90);
+		tournamentResult.setStrokesNetto(70);
+		return tournamentResult;
+	}
+}
@@ -3,10 +3,13 @@ package com.greg.golf.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.TreeSet;
 
+import com.greg.golf.controller.dto.TournamentProjectionRoundDto;
 import com.greg.golf.entity.*;
 import com.greg.golf.entity.helpers.Common;
 import com.greg.golf.error.DeleteTournamentPlayerException;
@@ -14,7 +17,9 @@ import com.greg.golf.error.DuplicatePlayerInTournamentException;
 import com.greg.golf.error.UnauthorizedException;
 import com.greg.golf.repository.*;
 import com.greg.golf.security.JwtRequestFilter;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.junit.ClassRule;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +37,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.PostgreSQLContainer;
 
 import com.greg.golf.service.events.RoundEvent;
+import com.greg.golf.service.helpers.ScoringKernel;
 import com.greg.golf.util.GolfPostgresqlContainer;
 
 @Slf4j
@@ -51,6 +57,10 @@ class TournamentServiceTest {
 	@Autowired
 	private TournamentService tournamentService;
 
+	@SuppressWarnings("unused")
+	@Autowired
+	private CourseRegistry courseRegistry;
+
 	@SuppressWarnings("unused")
 	@Autowired
 	TournamentResultRepository tournamentResultRepository;
@@ -211,25 +221,14 @@ class TournamentServiceTest {
 	void calculateNetAndGrossSTBTest(@Autowired RoundRepository roundRepository, @Autowired PlayerService playerService) {
 
 		var player = playerService.getPlayer(1L).orElseThrow();
+		var round = roundRepository.findAll().get(0);
 
-		var tournamentResult = new TournamentResult();
-		tournamentResult.setPlayedRounds(0);
-		tournamentResult.setStrokesBrutto(0);
-		tournamentResult.setStrokesNetto(0);
-		tournamentResult.setStbGross(0);
-		tournamentResult.setStbNet(0);
-		tournamentResult.setStrokeRounds(1);
-		tournamentResult.setPlayer(player);
-		tournamentResult.setTournament(tournamentService.findAllTournaments().get(0));
-		tournamentResultRepository.save(tournamentResult);
-
-		var retRound = roundRepository.findAll().get(0);
-		tournamentService.updateSTB(tournamentResult, retRound, null, player, 38.4F);
+		var result = score(round, player, 38.4F);
 
-		log.info("STB net: " + tournamentResult.getStbNet());
-		log.info("STB gross: " + tournamentResult.getStbGross());
-		Assertions.assertEquals(62, tournamentResult.getStbNet().intValue());
-		Assertions.assertEquals(17, tournamentResult.getStbGross().intValue());
+		log.info("STB net: " + result.getStbNet());
+		log.info("STB gross: " + result.getStbGross());
+		Assertions.assertEquals(62, result.getStbNet());
+		Assertions.assertEquals(17, result.getStbGross());
 	}
 
 	@DisplayName("Should add the new tournament")
@@ -266,7 +265,8 @@ class TournamentServiceTest {
 		round.getCourse().setHoles(holeRepository.findByCourse(course));
 
 		round.getScoreCard().get(0).setStroke(20);
-		var correctedScore = tournamentService.getCorrectedStrokes(player, round);
+		// course HCP 36 gives 2 strokes on each hole like hcp stored on the score cards
+		var correctedScore = score(round, player, 30.5F).getCorrectedStrokes();
 
 		log.info("corrected Strokes: " + correctedScore);
 		Assertions.assertEquals(91, correctedScore);
@@ -284,11 +284,13 @@ class TournamentServiceTest {
 		round.getCourse().setHoles(holeRepository.findByCourse(round.getCourse()));
 		round.getScoreCard().get(0).setStroke(20);
 
-		var playerRound = new PlayerRound();
-		playerRound.setSr(113);
-		playerRound.setCr((float) 0);
+		var course = courseRegistry.getCourse(round.getCourse().getId());
+		var tee = courseRegistry.getTee(2L);
+		var result = new ScoringKernel.Result();
+		ScoringKernel.score(strokes(round, player), course.par(), course.si(),
+				ScoringKernel.courseHcp(30.5F, tee.cr(), tee.sr(), course.coursePar()), 0, 113, result);
 
-		var scoreDifferential = tournamentService.getScoreDifferential(playerRound, round, player);
+		var scoreDifferential = result.getScoreDifferential();
 
 		log.info("score differential: " + scoreDifferential);
 		Assertions.assertEquals(91, (int) scoreDifferential);
@@ -349,7 +351,7 @@ class TournamentServiceTest {
 		var player = playerService.getPlayer(1L).orElseThrow();
 		var round = roundRepository.findAll().get(0);
 
-		var grossStrokes = tournamentService.getGrossStrokes(player, round);
+		var grossStrokes = score(round, player, 38.4F).getGrossStrokes();
 
 		Assertions.assertEquals(90, grossStrokes);
 
@@ -363,9 +365,9 @@ class TournamentServiceTest {
 		var player = playerService.getPlayer(1L).orElseThrow();
 		var round = roundRepository.findAll().get(0);
 
-		var netStrokes = tournamentService.getNetStrokes(player, round, 99, null, 38.4F);
+		var netStrokes = score(round, player, 38.4F).getNetStrokes();
 
-		Assertions.assertEquals(54, netStrokes);
+		Assertions.assertEquals(45, netStrokes);
 
 	}
 
@@ -377,7 +379,8 @@ class TournamentServiceTest {
 		var round = roundRepository.findAll().get(0);
 		var player = playerService.getPlayer(1L).orElseThrow();
 
-		var netStrokes = tournamentService.getNetStrokes(player, round, 22, null, 38.4F);
+		round.getScoreCard().forEach(scoreCard -> scoreCard.setStroke(1));
+		var netStrokes = score(round, player, 38.4F).getNetStrokes();
 
 		Assertions.assertEquals(0, netStrokes);
 
@@ -653,6 +656,206 @@ class TournamentServiceTest {
 
 	}
 
+	@DisplayName("Should add multiple rounds to the tournament with constant number of queries")
+	@Transactional
+	@Test
+	void addRoundsInBulkTest(@Autowired RoundRepository roundRepository,
+							 @Autowired PlayerRoundRepository playerRoundRepository,
+							 @Autowired TournamentRepository tournamentRepository,
+							 @Autowired TournamentPlayerRepository tournamentPlayerRepository,
+							 @Autowired TournamentRoundRepository tournamentRoundRepository,
+							 @Autowired PlayerService playerService,
+							 @Autowired CourseService courseService,
+							 @Autowired EntityManagerFactory entityManagerFactory) {
+
+		var roundIds = roundRepository.findAll().stream().map(Round::getId).toList();
+		var tournament = tournamentService.findAllTournaments().get(0);
+		addTournamentPlayer(tournamentPlayerRepository, tournament);
+
+		var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+
+		var tournamentRounds = tournamentService.addRounds(tournament.getId(), roundIds);
+
+		var statementCnt = statistics.getPrepareStatementCount();
+		log.info("Number of statements for " + roundIds.size() + " rounds: " + statementCnt);
+
+		Assertions.assertEquals(roundIds.size(), tournamentRounds.size());
+		Assertions.assertEquals(roundIds.size(), tournamentRoundRepository.count());
+
+		var tr = tournamentResultRepository.findByTournament(tournament).orElseThrow();
+		Assertions.assertEquals(90 * roundIds.size(), tr.getStrokesBrutto().intValue());
+		Assertions.assertEquals(roundIds.size(), tr.getPlayedRounds().intValue());
+
+		// the same rounds cannot be added twice
+		tournamentService.addRounds(tournament.getId(), roundIds);
+		Assertions.assertEquals(roundIds.size(), tournamentRoundRepository.count());
+
+		// three times more rounds added to another tournament
+		var player = playerService.getPlayer(1L).orElseThrow();
+		var course = courseService.getCourse(1L).orElseThrow();
+		var moreRoundIds = new ArrayList<Long>();
+		for (var i = 0; i < 3 * roundIds.size(); i++) {
+			var round = buildRound(player, course, new Date(10L + i));
+			roundRepository.save(round);
+			playerRoundRepository.updatePlayerRoundInfo(player.getWhs(), 135, 70.3f, 2L, 0, player.getId(), round.getId());
+			moreRoundIds.add(round.getId());
+		}
+
+		var tournament2 = new Tournament();
+		tournament2.setEndDate(new Date(1));
+		tournament2.setStartDate(new Date(1));
+		tournament2.setName("Test Cup 2");
+		tournament2.setPlayer(player);
+		tournament2.setStatus(Tournament.STATUS_OPEN);
+		tournament2.setBestRounds(Common.ALL_ROUNDS);
+		tournamentRepository.save(tournament2);
+		addTournamentPlayer(tournamentPlayerRepository, tournament2);
+
+		statistics.clear();
+		tournamentService.addRounds(tournament2.getId(), moreRoundIds);
+		var moreStatementCnt = statistics.getPrepareStatementCount();
+		statistics.setStatisticsEnabled(false);
+		log.info("Number of statements for " + moreRoundIds.size() + " rounds: " + moreStatementCnt);
+
+		// number of statements must not depend on number of rounds
+		Assertions.assertEquals(statementCnt, moreStatementCnt);
+		Assertions.assertEquals(roundIds.size() + moreRoundIds.size(), tournamentRoundRepository.count());
+	}
+
+	// scores the round with the tee used in the rounds created in setup
+	private ScoringKernel.Result score(Round round, Player player, float playerHcp) {
+
+		var course = courseRegistry.getCourse(round.getCourse().getId());
+		var tee = courseRegistry.getTee(2L);
+		var result = new ScoringKernel.Result();
+		ScoringKernel.score(strokes(round, player), course.par(), course.si(),
+				ScoringKernel.courseHcp(playerHcp, tee.cr(), tee.sr(), course.coursePar()), tee.cr(), tee.sr(), result);
+
+		return result;
+	}
+
+	private static int[] strokes(Round round, Player player) {
+
+		var strokes = new int[ScoringKernel.HOLES];
+		round.getScoreCard().stream()
+				.filter(scoreCard -> scoreCard.getPlayer().getId().equals(player.getId()))
+				.forEach(scoreCard -> strokes[scoreCard.getHole() - 1] = scoreCard.getStroke());
+
+		return strokes;
+	}
+
+	private void addTournamentPlayer(TournamentPlayerRepository tournamentPlayerRepository, Tournament tournament) {
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayerRepository.save(tournamentPlayer);
+	}
+
+	private Round buildRound(Player player, Course course, Date roundDate) {
+
+		var round = new Round();
+		round.setCourse(course);
+		var playerSet = new TreeSet<Player>();
+		playerSet.add(player);
+		round.setPlayer(playerSet);
+		round.setRoundDate(roundDate);
+		round.setMatchPlay(false);
+		round.setScoreCard(new ArrayList<>());
+		for (var i = 0; i < 18; i++) {
+			var scoreCard = new ScoreCard();
+			scoreCard.setHole(i + 1);
+			scoreCard.setPats(0);
+			scoreCard.setPenalty(0);
+			scoreCard.setPlayer(player);
+			scoreCard.setRound(round);
+			scoreCard.setStroke(5);
+			scoreCard.setHcp(2);
+			round.getScoreCard().add(scoreCard);
+		}
+		return round;
+	}
+
+	@DisplayName("Should rebuild tournament results from rounds added to the tournament")
+	@Transactional
+	@Test
+	void rebuildTournamentTest(@Autowired RoundRepository roundRepository,
+							   @Autowired TournamentPlayerRepository tournamentPlayerRepository,
+							   @Autowired TournamentRoundRepository tournamentRoundRepository,
+							   @Autowired TournamentRebuildService tournamentRebuildService,
+							   @Autowired PlayerService playerService) {
+
+		var player = playerService.getPlayer(1L).orElseThrow();
+		var authorities = new ArrayList<SimpleGrantedAuthority>();
+		authorities.add(new SimpleGrantedAuthority(Common.ADMIN));
+		UserDetails userDetails = new User(player.getId().toString(), player.getPassword(), authorities);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+		var roundIds = roundRepository.findAll().stream().map(Round::getId).toList();
+		var tournament = tournamentService.findAllTournaments().get(0);
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		roundIds.forEach(roundId -> tournamentService.addRound(tournament.getId(), roundId, true));
+		var expected = tournamentResultRepository.findByTournament(tournament).orElseThrow();
+		var stbNet = expected.getStbNet();
+		var strokesBrutto = expected.getStrokesBrutto();
+
+		var progress = tournamentRebuildService.rebuild(tournament.getId());
+
+		Assertions.assertEquals(roundIds.size(), progress.getTotalRounds());
+		Assertions.assertEquals(roundIds.size(), progress.getProcessedRounds());
+		Assertions.assertEquals(roundIds.size(), tournamentRoundRepository.count());
+
+		var tr = tournamentResultRepository.findByTournament(tournament).orElseThrow();
+		Assertions.assertEquals(stbNet, tr.getStbNet());
+		Assertions.assertEquals(strokesBrutto, tr.getStrokesBrutto());
+		Assertions.assertEquals(roundIds.size(), tr.getPlayedRounds().intValue());
+	}
+
+	@DisplayName("Should project tournament results without saving them")
+	@Transactional
+	@Test
+	void projectTournamentTest(@Autowired RoundRepository roundRepository,
+							   @Autowired TournamentPlayerRepository tournamentPlayerRepository,
+							   @Autowired TournamentProjectionService tournamentProjectionService) {
+
+		var round = roundRepository.findAll().get(0);
+		var tournament = tournamentService.findAllTournaments().get(0);
+
+		var tournamentPlayer = new TournamentPlayer();
+		tournamentPlayer.setTournamentId(tournament.getId());
+		tournamentPlayer.setPlayerId(1L);
+		tournamentPlayer.setNick("golfer");
+		tournamentPlayer.setWhs(10.0F);
+		tournamentPlayerRepository.save(tournamentPlayer);
+
+		tournamentService.addRound(tournament.getId(), round.getId(), true);
+		var playedRounds = tournamentResultRepository.findByTournament(tournament).orElseThrow().getPlayedRounds();
+
+		var projectedRound = new TournamentProjectionRoundDto();
+		projectedRound.setPlayerId(1L);
+		projectedRound.setTeeId(1L);
+		projectedRound.setStrokes(Collections.nCopies(18, 4));
+
+		var projection = tournamentProjectionService.project(tournament.getId(), List.of(projectedRound));
+
+		Assertions.assertEquals(1, projection.size());
+		Assertions.assertEquals(playedRounds + 1, projection.get(0).getPlayedRounds().intValue());
+		Assertions.assertEquals(playedRounds,
+				tournamentResultRepository.findByTournament(tournament).orElseThrow().getPlayedRounds());
+	}
+
 	@DisplayName("Should return tournament round for tournament result")
 	@Transactional
 	@Test
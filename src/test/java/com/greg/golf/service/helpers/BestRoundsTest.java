@@ -0,0 +1,117 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.entity.TournamentResult;
+import com.greg.golf.entity.TournamentRound;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+@Slf4j
+class BestRoundsTest {
+
+	@DisplayName("Should calculate the same totals as full recalculation of best rounds")
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 3, 5, 8, 20})
+	void incrementalMatchesFullRecalculationTest(int bestRounds) {
+
+		var random = new Random(bestRounds);
+
+		for (var run = 0; run < 50; run++) {
+
+			var tournamentResult = emptyResult();
+			var tournamentRounds = new ArrayList<TournamentRound>();
+
+			var rounds = random.nextInt(40);
+			for (var i = 0; i < rounds; i++) {
+
+				var tournamentRound = new TournamentRound();
+				tournamentRound.setStbNet(random.nextInt(50));
+				tournamentRound.setStbGross(random.nextInt(40));
+				tournamentRound.setStrokes(random.nextInt(4) > 0);
+				tournamentRound.setStrokesBrutto(tournamentRound.getStrokes() ? 70 + random.nextInt(50) : 0);
+				tournamentRound.setStrokesNetto(tournamentRound.getStrokes() ? 60 + random.nextInt(30) : 0);
+				tournamentRounds.add(tournamentRound);
+
+				if (i == 0) {
+					BestRounds.init(tournamentResult, bestRounds, List.of());
+				}
+				BestRounds.add(tournamentResult, tournamentRound);
+
+				var expected = fullRecalculation(bestRounds, tournamentRounds);
+				Assertions.assertEquals(expected.getStbNet(), tournamentResult.getStbNet());
+				Assertions.assertEquals(expected.getStbGross(), tournamentResult.getStbGross());
+				Assertions.assertEquals(expected.getStrokesNetto(), tournamentResult.getStrokesNetto());
+				Assertions.assertEquals(expected.getStrokesBrutto(), tournamentResult.getStrokesBrutto());
+			}
+
+			// heaps built from all rounds at once must give the same totals
+			var initialized = emptyResult();
+			BestRounds.init(initialized, bestRounds, tournamentRounds);
+			Assertions.assertEquals(tournamentResult.getStbNet(), initialized.getStbNet());
+			Assertions.assertEquals(tournamentResult.getStrokesBrutto(), initialized.getStrokesBrutto());
+		}
+	}
+
+	@DisplayName("Should keep only best values in the heap")
+	@Test
+	void offerTest() {
+
+		var heap = BestRounds.create(2);
+
+		Assertions.assertEquals(36, BestRounds.offer(heap, 36, true));
+		Assertions.assertEquals(30, BestRounds.offer(heap, 30, true));
+		Assertions.assertEquals(0, BestRounds.offer(heap, 20, true));
+		Assertions.assertEquals(10, BestRounds.offer(heap, 40, true));
+		Assertions.assertEquals(76, BestRounds.sum(heap));
+
+		heap = BestRounds.create(2);
+		BestRounds.offer(heap, 90, false);
+		BestRounds.offer(heap, 85, false);
+		Assertions.assertEquals(-10, BestRounds.offer(heap, 80, false));
+		Assertions.assertEquals(165, BestRounds.sum(heap));
+	}
+
+	private TournamentResult emptyResult() {
+
+		var tournamentResult = new TournamentResult();
+		tournamentResult.setStbNet(0);
+		tournamentResult.setStbGross(0);
+		tournamentResult.setStrokesNetto(0);
+		tournamentResult.setStrokesBrutto(0);
+		return tournamentResult;
+	}
+
+	// full recalculation as it has been done by TournamentService: sums of all rounds
+	// till number of rounds exceeds best rounds, then the sums of best rounds
+	private TournamentResult fullRecalculation(int bestRounds, List<TournamentRound> tournamentRounds) {
+
+		var tournamentResult = emptyResult();
+		var strokeRounds = tournamentRounds.stream().filter(TournamentRound::getStrokes).toList();
+
+		if (tournamentRounds.size() <= bestRounds) {
+			tournamentResult.setStbNet(tournamentRounds.stream().mapToInt(TournamentRound::getStbNet).sum());
+			tournamentResult.setStbGross(tournamentRounds.stream().mapToInt(TournamentRound::getStbGross).sum());
+			tournamentResult.setStrokesNetto(strokeRounds.stream().mapToInt(TournamentRound::getStrokesNetto).sum());
+			tournamentResult.setStrokesBrutto(strokeRounds.stream().mapToInt(TournamentRound::getStrokesBrutto).sum());
+			return tournamentResult;
+		}
+
+		tournamentResult.setStbNet(tournamentRounds.stream().map(TournamentRound::getStbNet)
+				.sorted(Comparator.reverseOrder()).limit(bestRounds).reduce(0, Integer::sum));
+		tournamentResult.setStbGross(tournamentRounds.stream().map(TournamentRound::getStbGross)
+				.sorted(Comparator.reverseOrder()).limit(bestRounds).reduce(0, Integer::sum));
+		tournamentResult.setStrokesNetto(strokeRounds.stream().map(TournamentRound::getStrokesNetto)
+				.sorted().limit(bestRounds).reduce(0, Integer::sum));
+		tournamentResult.setStrokesBrutto(strokeRounds.stream().map(TournamentRound::getStrokesBrutto)
+				.sorted().limit(bestRounds).reduce(0, Integer::sum));
+		return tournamentResult;
+	}
+}
@@ -0,0 +1,64 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.entity.CycleResult;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+@Slf4j
+class CycleStandingsTest {
+
+	@DisplayName("Should calculate the same cycle score and total as sorting of all results")
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 3, 8, 20})
+	void topKMatchesSortedResultsTest(int bestRounds) {
+
+		var random = new Random(bestRounds);
+		var cycleResults = new ArrayList<CycleResult>();
+
+		// more than parallel threshold to cover both paths
+		for (var p = 0; p < CycleStandings.PARALLEL_THRESHOLD + 10; p++) {
+			var cycleResult = new CycleResult();
+			cycleResult.setResults(random.ints(4 * random.nextInt(12), 0, 45).toArray());
+			cycleResults.add(cycleResult);
+		}
+
+		CycleStandings.update(cycleResults, bestRounds);
+		var sequential = cycleResults.subList(0, 10);
+		CycleStandings.update(sequential, bestRounds);
+
+		cycleResults.forEach(cycleResult -> {
+			int total = Arrays.stream(cycleResult.getResults()).sum();
+			int cycleScore = bestRounds == 0 ? total : Arrays.stream(cycleResult.getResults())
+					.boxed()
+					.sorted(Comparator.reverseOrder())
+					.limit(bestRounds)
+					.reduce(0, Integer::sum);
+
+			Assertions.assertEquals(total, cycleResult.getTotal());
+			Assertions.assertEquals(cycleScore, cycleResult.getCycleScore());
+		});
+	}
+
+	@DisplayName("Should append, prepend and remove tournament results")
+	@Test
+	void appendAndRemoveTest() {
+
+		var results = CycleStandings.append(new int[] {1, 2, 3, 4}, new int[] {5, 6, 7, 8});
+		Assertions.assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 8}, results);
+
+		Assertions.assertArrayEquals(new int[] {0, 0, 0, 0, 5, 6, 7, 8},
+				CycleStandings.prepend(4, new int[] {5, 6, 7, 8}));
+
+		Assertions.assertArrayEquals(new int[] {1, 2, 3, 4}, CycleStandings.removeLast(results, 4));
+		Assertions.assertArrayEquals(new int[0], CycleStandings.removeLast(new int[] {1, 2}, 4));
+	}
+}
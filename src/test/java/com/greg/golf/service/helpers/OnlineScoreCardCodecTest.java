@@ -0,0 +1,121 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.controller.dto.OnlineScoreCardDto;
+import com.greg.golf.controller.dto.PlayerDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+@Slf4j
+class OnlineScoreCardCodecTest {
+
+	@DisplayName("Should decode encoded score card")
+	@Test
+	void roundTripTest() {
+
+		var player = new PlayerDto();
+		player.setId(300L);
+
+		var onlineScoreCard = new OnlineScoreCardDto();
+		onlineScoreCard.setOrId(123456789012L);
+		onlineScoreCard.setPlayer(player);
+		onlineScoreCard.setHole(18);
+		onlineScoreCard.setStroke(7);
+		onlineScoreCard.setPutt(2);
+		onlineScoreCard.setUpdate(true);
+		onlineScoreCard.setTime("09:05");
+		onlineScoreCard.setSequence(4321L);
+
+		var bytes = OnlineScoreCardCodec.encode(onlineScoreCard);
+		Assertions.assertEquals(OnlineScoreCardCodec.SIZE, bytes.length);
+
+		var decoded = OnlineScoreCardCodec.decode(bytes);
+		Assertions.assertEquals(123456789012L, decoded.getOrId());
+		Assertions.assertEquals(300L, decoded.getPlayer().getId());
+		Assertions.assertEquals(18, decoded.getHole());
+		Assertions.assertEquals(7, decoded.getStroke());
+		Assertions.assertEquals(2, decoded.getPutt());
+		Assertions.assertNull(decoded.getPenalty());
+		Assertions.assertTrue(decoded.isUpdate());
+		Assertions.assertEquals("09:05", decoded.getTime());
+		Assertions.assertEquals(4321L, decoded.getSequence());
+	}
+
+	@DisplayName("Should decode score card without player and time")
+	@Test
+	void missingValuesTest() {
+
+		var onlineScoreCard = new OnlineScoreCardDto();
+		onlineScoreCard.setOrId(1L);
+		onlineScoreCard.setHole(1);
+		onlineScoreCard.setStroke(4);
+
+		var decoded = OnlineScoreCardCodec.decode(OnlineScoreCardCodec.encode(onlineScoreCard));
+		Assertions.assertNull(decoded.getPlayer());
+		Assertions.assertNull(decoded.getTime());
+		Assertions.assertNull(decoded.getSequence());
+		Assertions.assertFalse(decoded.isUpdate());
+	}
+
+	@DisplayName("Should decode encoded list of score cards")
+	@Test
+	void listTest() {
+
+		var first = new OnlineScoreCardDto();
+		first.setOrId(1L);
+		first.setHole(1);
+		first.setStroke(4);
+		var second = new OnlineScoreCardDto();
+		second.setOrId(1L);
+		second.setHole(2);
+		second.setStroke(5);
+
+		var bytes = OnlineScoreCardCodec.encode(List.of(first, second));
+		Assertions.assertEquals(2 * OnlineScoreCardCodec.SIZE, bytes.length);
+
+		var decoded = OnlineScoreCardCodec.decodeAll(bytes);
+		Assertions.assertEquals(List.of(1, 2), decoded.stream().map(OnlineScoreCardDto::getHole).toList());
+		Assertions.assertEquals(5, decoded.get(1).getStroke());
+		Assertions.assertTrue(OnlineScoreCardCodec.decodeAll(new byte[0]).isEmpty());
+	}
+
+	@DisplayName("Should reject values out of range")
+	@Test
+	void invalidValueTest() {
+
+		var onlineScoreCard = new OnlineScoreCardDto();
+		onlineScoreCard.setOrId(1L);
+		onlineScoreCard.setHole(1);
+		onlineScoreCard.setStroke(4);
+		onlineScoreCard.setTime("10:15");
+		var bytes = OnlineScoreCardCodec.encode(onlineScoreCard);
+
+		var hour = bytes.clone();
+		hour[29] = 100;
+		Assertions.assertThrows(IllegalArgumentException.class, () -> OnlineScoreCardCodec.decode(hour));
+
+		var minute = bytes.clone();
+		minute[30] = 60;
+		Assertions.assertThrows(IllegalArgumentException.class, () -> OnlineScoreCardCodec.decode(minute));
+
+		var hole = bytes.clone();
+		hole[24] = 19;
+		Assertions.assertThrows(IllegalArgumentException.class, () -> OnlineScoreCardCodec.decode(hole));
+
+		var time = bytes.clone();
+		time[30] = -1;
+		Assertions.assertThrows(IllegalArgumentException.class, () -> OnlineScoreCardCodec.decode(time));
+	}
+
+	@DisplayName("Should reject payload of invalid size")
+	@Test
+	void invalidSizeTest() {
+
+		var bytes = new byte[5];
+		Assertions.assertThrows(IllegalArgumentException.class, () -> OnlineScoreCardCodec.decode(bytes));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> OnlineScoreCardCodec.decodeAll(bytes));
+	}
+}
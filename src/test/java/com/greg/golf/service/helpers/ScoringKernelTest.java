@@ -0,0 +1,88 @@
+package com.greg.golf.service.helpers;
+
+import com.greg.golf.entity.helpers.Common;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+class ScoringKernelTest {
+
+	@DisplayName("Should calculate the same scores as hole by hole calculation")
+	@ParameterizedTest
+	@ValueSource(floats = {-3.2F, 0F, 10.0F, 18.4F, 38.4F, 54F})
+	void kernelMatchesHoleByHoleCalculationTest(float playerHcp) {
+
+		var random = new Random(Float.floatToIntBits(playerHcp));
+
+		var cr = 70.3F;
+		var sr = 135;
+		var coursePar = 72;
+		var par = new int[ScoringKernel.HOLES];
+		var si = new int[ScoringKernel.HOLES];
+		var strokes = new int[ScoringKernel.HOLES];
+		for (var i = 0; i < ScoringKernel.HOLES; i++) {
+			par[i] = 3 + random.nextInt(3);
+			si[i] = (i * 5) % ScoringKernel.HOLES + 1;
+			strokes[i] = 1 + random.nextInt(Common.HOLE_GIVEN_UP);
+		}
+
+		var courseHcp = Math.round(playerHcp * sr / 113 + cr - coursePar);
+		Assertions.assertEquals(courseHcp, ScoringKernel.courseHcp(playerHcp, cr, sr, coursePar));
+
+		// reference values calculated hole by hole
+		var stbNet = 0;
+		var stbGross = 0;
+		var grossStrokes = 0;
+		var correctedStrokes = 0;
+		var strokeApplicable = true;
+		for (var i = 0; i < ScoringKernel.HOLES; i++) {
+			// plus handicaps are rounded down as well
+			var hcp = Math.floorDiv(courseHcp, ScoringKernel.HOLES);
+			if (si[i] <= Math.floorMod(courseHcp, ScoringKernel.HOLES)) {
+				hcp++;
+			}
+			stbNet += Math.max(par[i] - (strokes[i] - hcp) + 2, 0);
+			stbGross += Math.max(par[i] - strokes[i] + 2, 0);
+			grossStrokes += strokes[i];
+			correctedStrokes += Math.min(strokes[i], hcp + 2 + par[i]);
+			strokeApplicable &= strokes[i] < Common.HOLE_GIVEN_UP;
+		}
+
+		var result = new ScoringKernel.Result();
+		ScoringKernel.score(strokes, par, si, courseHcp, cr, sr, result);
+
+		Assertions.assertEquals(stbNet, result.getStbNet());
+		Assertions.assertEquals(stbGross, result.getStbGross());
+		Assertions.assertEquals(grossStrokes, result.getGrossStrokes());
+		Assertions.assertEquals(Math.max(grossStrokes - courseHcp, 0), result.getNetStrokes());
+		Assertions.assertEquals(correctedStrokes, result.getCorrectedStrokes());
+		Assertions.assertEquals((113 / (float) sr) * (correctedStrokes - cr), result.getScoreDifferential());
+		Assertions.assertEquals(strokeApplicable, result.isStrokeApplicable());
+	}
+
+	@DisplayName("Should mark round with given up hole as not applicable for strokes")
+	@Test
+	void holeGivenUpTest() {
+
+		var strokes = new int[ScoringKernel.HOLES];
+		var par = new int[ScoringKernel.HOLES];
+		var si = new int[ScoringKernel.HOLES];
+		for (var i = 0; i < ScoringKernel.HOLES; i++) {
+			strokes[i] = 5;
+			par[i] = 4;
+			si[i] = i + 1;
+		}
+		strokes[0] = Common.HOLE_GIVEN_UP;
+
+		var result = new ScoringKernel.Result();
+		ScoringKernel.score(strokes, par, si, 18, 70.3F, 135, result);
+
+		Assertions.assertFalse(result.isStrokeApplicable());
+		Assertions.assertEquals(101, result.getGrossStrokes());
+		Assertions.assertEquals(34, result.getStbNet());
+	}
+}